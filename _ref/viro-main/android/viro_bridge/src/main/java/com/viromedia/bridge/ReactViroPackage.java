@@ -82,6 +82,7 @@ import com.viromedia.bridge.module.NodeModule;
 import com.viromedia.bridge.module.SceneModule;
 import com.viromedia.bridge.module.SceneNavigatorModule;
 import com.viromedia.bridge.module.PerfMonitor;
+import com.viromedia.bridge.module.TelemetryModule;
 import com.viromedia.bridge.module.SoundModule;
 import com.viromedia.bridge.module.VRT3DSceneNavigatorModule;
 import com.viromedia.bridge.module.VRTImageModule;
@@ -115,6 +116,7 @@ public class ReactViroPackage implements ReactPackage {
                 new SoundModule(reactContext),
                 new SceneNavigatorModule(reactContext),
                 new PerfMonitor(reactContext),
+                new TelemetryModule(reactContext),
                 new ControllerModule(reactContext),
                 new NodeModule(reactContext),
                 new SceneModule(reactContext),
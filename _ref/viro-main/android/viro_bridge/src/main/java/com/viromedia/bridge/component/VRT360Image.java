@@ -29,7 +29,6 @@ import android.os.Looper;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.internal.Image;
 import com.viro.core.PortalScene;
 import com.viro.core.Texture;
@@ -40,6 +39,7 @@ import com.viromedia.bridge.utility.Helper;
 import com.viromedia.bridge.utility.ImageDownloadListener;
 import com.viromedia.bridge.utility.ImageDownloader;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 public class VRT360Image extends VRTNode {
     private static final float[] sDefaultRotation = {0, 0, 0};
@@ -156,7 +156,7 @@ public class VRT360Image extends VRTNode {
     }
 
     private void imageDownloadDidStart() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_LOAD_START,
                 null
@@ -164,7 +164,7 @@ public class VRT360Image extends VRTNode {
     }
 
     private void imageDownloadDidFinish() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_LOAD_END,
                 null
@@ -27,7 +27,6 @@ import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.PortalScene;
 import com.viro.core.Texture;
 import com.viro.core.Vector;
@@ -37,6 +36,7 @@ import com.viromedia.bridge.component.node.VRTNode;
 import com.viromedia.bridge.component.node.VRTScene;
 import com.viromedia.bridge.utility.Helper;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 import java.lang.ref.WeakReference;
 
@@ -270,21 +270,21 @@ public class VRT360Video extends VRTNode {
     }
 
     private void reactVideoBufferStartCallback() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_BUFFER_START,
                 null);
     }
 
     private void reactVideoBufferEndCallback() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_BUFFER_END,
                 null);
     }
 
     private void reactVideoFinishedCallback() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_FINISH,
                 null);
@@ -294,7 +294,7 @@ public class VRT360Video extends VRTNode {
         WritableMap event = Arguments.createMap();
         event.putDouble("currentTime", (double) currentTime);
         event.putDouble("totalTime", (double) totalTime);
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_UPDATE_TIME,
                 event);
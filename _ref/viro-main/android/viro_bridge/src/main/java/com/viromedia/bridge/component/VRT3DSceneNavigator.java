@@ -30,7 +30,6 @@ import android.widget.FrameLayout;
 
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactContext;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.RendererConfiguration;
 import com.viro.core.ViroContext;
 
@@ -39,10 +38,12 @@ import com.viro.core.Vector;
 import com.viro.core.ViroViewScene;
 import com.viromedia.bridge.ReactViroPackage;
 import com.viromedia.bridge.component.node.VRTScene;
+import com.viromedia.bridge.component.node.control.ParticleEmitterPool;
 import com.viromedia.bridge.module.MaterialManager;
 import com.viromedia.bridge.utility.ViroEvents;
 import com.viromedia.bridge.module.PerfMonitor;
 import com.viromedia.bridge.utility.ViroLog;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
@@ -192,6 +193,7 @@ public class VRT3DSceneNavigator extends FrameLayout {
          */
         PerfMonitor perfMonitor = reactContext.getNativeModule(PerfMonitor.class);
         perfMonitor.setView(mViroView);
+        ViroTelemetry.attach(mViroView);
 
         /*
          * Trigger ViroView's onActivityStarted and onActivityResumed of the vrView as
@@ -321,6 +323,7 @@ public class VRT3DSceneNavigator extends FrameLayout {
         for (VRTScene scene : mSceneArray) {
             scene.forceCascadeTearDown();
         }
+        ParticleEmitterPool.clear(mViroContext);
 
         /**
          * If we're exiting Viro and destroying the renderer, notify the MaterialManager so that if
@@ -370,7 +373,7 @@ public class VRT3DSceneNavigator extends FrameLayout {
         }
 
         // Notify javascript listeners (for ReactNativeJs to ViroReactJs cases)
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_EXIT_VIRO,
                 null);
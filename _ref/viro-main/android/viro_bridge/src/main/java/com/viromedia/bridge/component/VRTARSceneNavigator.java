@@ -275,6 +275,19 @@ public class VRTARSceneNavigator extends VRT3DSceneNavigator {
         }
     }
 
+    /**
+     * Get the anchoring metrics of the active VRTARScene child, or null without one.
+     */
+    public WritableMap getAnchoringMetrics() {
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child instanceof VRTARScene) {
+                return ((VRTARScene) child).getAnchorScheduler().getMetrics();
+            }
+        }
+        return null;
+    }
+
     /**
      * Get the current ARScene from the active VRTARScene child.
      */
@@ -28,11 +28,11 @@ import android.view.View;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.facebook.react.views.view.ReactViewGroup;
 import com.viro.core.ViroContext;
 import com.viromedia.bridge.component.node.VRTScene;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 /**
  * Base class for any Viro UI Component. Equivalent to the VRTView in iOS.
@@ -72,6 +72,7 @@ public class VRTComponent extends ReactViewGroup {
                         int defStyleRes, ReactContext reactContext) {
         super(context);
         mReactContext = reactContext;
+        ViroTelemetry.objectCreated(getClass());
     }
 
     public ReactContext getReactContext(){
@@ -128,7 +129,7 @@ public class VRTComponent extends ReactViewGroup {
         component.onTreeUpdate();
         onTreeUpdate();
 
-        if (shouldAppear()) {
+        if (shouldChildAppear(component)) {
             component.parentDidAppear();
         }
     }
@@ -202,6 +203,10 @@ public class VRTComponent extends ReactViewGroup {
      * Children should override and invoke this super method.
      */
     public void onTearDown() {
+        if (!mTornDown) {
+            ViroTelemetry.objectDestroyed(getClass());
+        }
+
         try {
             // Clear references to parent components
             mScene = null;
@@ -314,18 +319,32 @@ public class VRTComponent extends ReactViewGroup {
         return mParentHasAppeared;
     }
 
+    /*
+     Whether or not the given child should appear. By default children follow this Component's
+     own appearance; containers that hold back some of their children (e.g. a lazily hydrated
+     portal scene) override this.
+     */
+    protected boolean shouldChildAppear(VRTComponent child) {
+        return shouldAppear();
+    }
+
     /*
      This function is called when the appearance state of this Component has changed.
      */
     protected void handleAppearanceChange() {
-        if (this.shouldAppear()) {
-            for (int i = 0; i < getChildCount(); i++) {
-                ((VRTComponent) getChildAt(i)).parentDidAppear();
-            }
+        for (int i = 0; i < getChildCount(); i++) {
+            updateChildAppearance((VRTComponent) getChildAt(i));
+        }
+    }
+
+    /*
+     Lets a single child know whether it should appear, without revisiting its siblings.
+     */
+    protected void updateChildAppearance(VRTComponent child) {
+        if (shouldChildAppear(child)) {
+            child.parentDidAppear();
         } else {
-            for (int i = 0; i < getChildCount(); i++) {
-                ((VRTComponent) getChildAt(i)).parentDidDisappear();
-            }
+            child.parentDidDisappear();
         }
     }
 
@@ -355,7 +374,7 @@ public class VRTComponent extends ReactViewGroup {
         WritableMap event = Arguments.createMap();
         event.putString("error", error);
 
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_ERROR,
                 event);
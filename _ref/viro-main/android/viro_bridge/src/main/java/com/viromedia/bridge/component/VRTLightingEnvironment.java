@@ -23,7 +23,6 @@ package com.viromedia.bridge.component;
 
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.PortalScene;
 import com.viro.core.Texture;
 import com.viro.core.internal.Image;
@@ -31,6 +30,7 @@ import com.viromedia.bridge.component.node.VRTNode;
 import com.viromedia.bridge.component.node.VRTScene;
 import com.viromedia.bridge.utility.HdrImageDownloader;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 public class VRTLightingEnvironment extends VRTNode {
     private ReadableMap mSourceMap;
@@ -102,7 +102,7 @@ public class VRTLightingEnvironment extends VRTNode {
     }
 
     private void imageDownloadDidStart() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_LOAD_START,
                 null
@@ -110,7 +110,7 @@ public class VRTLightingEnvironment extends VRTNode {
     }
 
     private void imageDownloadDidFinish() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_LOAD_END,
                 null
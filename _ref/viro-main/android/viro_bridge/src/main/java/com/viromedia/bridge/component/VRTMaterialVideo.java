@@ -24,11 +24,11 @@ package com.viromedia.bridge.component;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.Material;
 import com.viro.core.VideoTexture;
 import com.viromedia.bridge.module.MaterialManager;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 import java.lang.ref.WeakReference;
 
@@ -236,21 +236,21 @@ public class VRTMaterialVideo extends VRTComponent implements MaterialManager.Ma
     }
 
     private void playerBufferStart() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_BUFFER_START,
                 null);
     }
 
     private void playerBufferEnd() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_BUFFER_END,
                 null);
     }
 
     private void playerDidFinishPlaying() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_FINISH,
                 null);
@@ -261,7 +261,7 @@ public class VRTMaterialVideo extends VRTComponent implements MaterialManager.Ma
         event.putDouble("currentTime", (double) currentTime);
         event.putDouble("totalTime", (double) totalTime);
 
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_UPDATE_TIME,
                 event);
@@ -21,30 +21,19 @@
 
 package com.viromedia.bridge.component;
 
-import android.graphics.Bitmap;
-
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableMap;
-import com.facebook.react.bridge.ReadableMapKeySetIterator;
-import com.facebook.react.bridge.ReadableType;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.Node;
 import com.viro.core.PortalScene;
-import com.viro.core.internal.Image;
 import com.viro.core.Texture;
 import com.viromedia.bridge.component.node.VRTNode;
 import com.viromedia.bridge.component.node.VRTScene;
+import com.viromedia.bridge.utility.CubeMapLoader;
 import com.viromedia.bridge.utility.Helper;
-import com.viromedia.bridge.utility.ImageDownloadListener;
-import com.viromedia.bridge.utility.ImageDownloader;
 import com.viromedia.bridge.utility.ViroLog;
-
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 public class VRTSkyBox extends VRTNode {
     private static final long COLOR_NOT_SET = 0;
@@ -52,19 +41,16 @@ public class VRTSkyBox extends VRTNode {
     private static final String TAG = ViroLog.getTag(VRTSkyBox.class);
     private final ReactContext mContext;
     private ReadableMap mSourceMap;
-    private Map<String, Image> mImageMap = new HashMap<>();
     private Texture mLatestTexture;
-    private ImageDownloader mImageDownloader;
     private long mColor;
     private Texture.Format mFormat = Texture.Format.RGBA8;
     private boolean mSkyboxNeedsUpdate = false;
     private boolean mUseTextureForSkybox = true;
-    private HashSet<SkyboxImageDownloadListener> mDownloadListeners = new HashSet<>();
+    private SkyboxCubeMapListener mCubeMapListener;
 
     public VRTSkyBox(ReactContext context) {
         super(context);
         mContext = context;
-        mImageDownloader = new ImageDownloader(getContext());
         mColor = COLOR_NOT_SET;
     }
 
@@ -87,16 +73,18 @@ public class VRTSkyBox extends VRTNode {
         if (mSkyboxNeedsUpdate) {
             if (mUseTextureForSkybox && mSourceMap != null) {
                 imageDownloadDidStart();
-                ReadableMapKeySetIterator iterator = mSourceMap.keySetIterator();
-                // We'll use this latch to find out when all the 6 images for the skybox have downloaded
-                CountDownLatch latch = new CountDownLatch(6);
-
-                while (iterator.hasNextKey()) {
-                    String key = iterator.nextKey();
-                    ReadableType type = mSourceMap.getType(key);
-                    if (type.name().equals(ReadableType.Map.name())) {
-                        getImageForCubeFace(key, mSourceMap.getMap(key), latch);
-                    }
+                // Only the most recent source may update the skybox.
+                if (mCubeMapListener != null) {
+                    mCubeMapListener.invalidate();
+                }
+                mCubeMapListener = new SkyboxCubeMapListener();
+                // The six faces are fetched in parallel, and cube maps we've shown recently are
+                // served straight from the loader's cache.
+                try {
+                    CubeMapLoader.loadAsync(mContext, mSourceMap, mFormat, mCubeMapListener);
+                } catch (IllegalArgumentException e) {
+                    ViroLog.error(TAG, e.getMessage());
+                    imageDownloadDidFinish(null);
                 }
             } else if (mColor != COLOR_NOT_SET) {
                 setBackgroundCubeImageColor(mColor);
@@ -106,34 +94,17 @@ public class VRTSkyBox extends VRTNode {
         }
     }
 
-
-    private void getImageForCubeFace(final String cubeFaceName, ReadableMap map, final CountDownLatch latch) {
-        if (map != null) {
-            SkyboxImageDownloadListener listener = new SkyboxImageDownloadListener(cubeFaceName, latch);
-            mDownloadListeners.add(listener);
-            mImageDownloader.getImageAsync(map, listener);
-        }
-    }
-
     @Override
     public void onTearDown() {
         super.onTearDown();
 
-        for (SkyboxImageDownloadListener listener : mDownloadListeners) {
-            listener.invalidate();
-        }
-
-        if (!mImageMap.isEmpty() && mSourceMap != null) {
-            ReadableMapKeySetIterator iterator = mSourceMap.keySetIterator();
-            while (iterator.hasNextKey()) {
-                String key = iterator.nextKey();
-                mImageMap.get(key).destroy();
-                mImageMap.remove(key);
-            }
+        if (mCubeMapListener != null) {
+            mCubeMapListener.invalidate();
+            mCubeMapListener = null;
         }
 
         if (mLatestTexture != null) {
-            mLatestTexture.dispose();
+            CubeMapLoader.release(mLatestTexture);
             mLatestTexture = null;
         }
     }
@@ -150,12 +121,11 @@ public class VRTSkyBox extends VRTNode {
 
     public void setFormat(String format) {
         mFormat = Texture.Format.forString(format);
-        mImageDownloader.setTextureFormat(mFormat);
         mSkyboxNeedsUpdate = true;
     }
 
     private void imageDownloadDidStart() {
-        mContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mContext,
                 getId(),
                 VRTSkyBoxManager.SKYBOX_LOAD_START,
                 null
@@ -190,15 +160,17 @@ public class VRTSkyBox extends VRTNode {
         }
     }
 
-    private void imageDownloadDidFinish(boolean success) {
-        if (mLatestTexture != null) {
-            mLatestTexture.dispose();
-        }
-
-        if (success){
-            mLatestTexture = new Texture(mImageMap.get("px"), mImageMap.get("nx"),
-                    mImageMap.get("py"), mImageMap.get("ny"),
-                    mImageMap.get("pz"), mImageMap.get("nz"));
+    /**
+     * Called with the loaded cube map texture, or null if loading failed. The skybox takes
+     * ownership of the given texture.
+     */
+    private void imageDownloadDidFinish(Texture texture) {
+        boolean success = texture != null;
+        if (success) {
+            if (mLatestTexture != null) {
+                CubeMapLoader.release(mLatestTexture);
+            }
+            mLatestTexture = texture;
 
             if (mUseTextureForSkybox) {
                 setBackgroundCubeImageTexture(mLatestTexture);
@@ -207,26 +179,18 @@ public class VRTSkyBox extends VRTNode {
 
         WritableMap event = Arguments.createMap();
         event.putBoolean("success", success);
-        mContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mContext,
                 getId(),
                 VRTSkyBoxManager.SKYBOX_LOAD_END,
                 event
         );
     }
 
-    private class SkyboxImageDownloadListener implements ImageDownloadListener {
-        private boolean mIsValid = true;
-        private CountDownLatch mLatch;
-        private final String mCubeFaceName;
-
-        public SkyboxImageDownloadListener(String cubeFaceName, CountDownLatch latch) {
-            mCubeFaceName = cubeFaceName;
-            mLatch = latch;
-        }
+    private class SkyboxCubeMapListener implements CubeMapLoader.Listener {
+        private volatile boolean mIsValid = true;
 
         public void invalidate() {
             mIsValid = false;
-            mLatch = null;
         }
 
         @Override
@@ -235,40 +199,21 @@ public class VRTSkyBox extends VRTNode {
         }
 
         @Override
-        public void completed(Bitmap result) {
+        public void completed(Texture texture) {
             if (!mIsValid) {
+                // We were superseded or torn down after the loader handed us the texture.
+                CubeMapLoader.release(texture);
                 return;
             }
-
-            Image cubeFaceImage = mImageMap.get(mCubeFaceName);
-            if (cubeFaceImage != null) {
-                cubeFaceImage.destroy();
-            }
-
-            cubeFaceImage = new Image(result, mFormat);
-            mImageMap.put(mCubeFaceName, cubeFaceImage);
-            mLatch.countDown();
-
-            if (mLatch.getCount() == 0) {
-                // All 6 skybox images finished downloading.
-                imageDownloadDidFinish(true);
-
-                if(result != null) {
-                    final int width = result.getWidth();
-                    final int height = result.getHeight();
-
-                    if(width != height) {
-                        ViroLog.error(TAG, "Width and height for skybox textures must be square, current image dimensions are (" + width + "," + height + ")");
-                    }
-                }
-            }
-
-            mDownloadListeners.remove(this);
+            imageDownloadDidFinish(texture);
         }
 
         @Override
         public void failed(String error) {
-            imageDownloadDidFinish(false);
+            if (!mIsValid) {
+                return;
+            }
+            imageDownloadDidFinish(null);
         }
     }
 }
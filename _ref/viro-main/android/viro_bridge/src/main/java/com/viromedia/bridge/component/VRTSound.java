@@ -25,11 +25,11 @@ package com.viromedia.bridge.component;
 import android.net.Uri;
 
 import com.facebook.react.bridge.ReactContext;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.internal.BaseSound;
 import com.viro.core.SoundData;
 import com.viro.core.Sound;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 public class VRTSound extends VRTBaseSound implements Sound.PlaybackListener {
 
@@ -61,7 +61,7 @@ public class VRTSound extends VRTBaseSound implements Sound.PlaybackListener {
 
     @Override
     public void onSoundFinish(Sound sound) {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(getId(),
+        ViroTelemetry.receiveEvent(mReactContext, getId(),
                 ViroEvents.ON_FINISH,
                 null);
     }
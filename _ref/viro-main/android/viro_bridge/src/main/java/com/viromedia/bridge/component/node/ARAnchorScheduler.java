@@ -0,0 +1,318 @@
+//  Copyright © 2017 Viro Media. All rights reserved.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining
+//  a copy of this software and associated documentation files (the
+//  "Software"), to deal in the Software without restriction, including
+//  without limitation the rights to use, copy, modify, merge, publish,
+//  distribute, sublicense, and/or sell copies of the Software, and to
+//  permit persons to whom the Software is furnished to do so, subject to
+//  the following conditions:
+//
+//  The above copyright notice and this permission notice shall be included
+//  in all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+//  EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+//  MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+//  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+//  CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+//  TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+//  SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.viromedia.bridge.component.node;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.viro.core.ARNode;
+import com.viro.core.ARScene;
+import com.viro.core.Vector;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Anchors the nodes at the root of a {@link VRTARScene}, for all of its nodes at once.
+ *
+ * Nodes are queued and anchored in batches on the main thread, and only while tracking is
+ * normal: ARCore can't create anchors otherwise, so attempting then only burns retries. A node
+ * near an anchor created for another node shares it instead of getting its own, and a failed
+ * attempt defers the rest of the batch and retries with exponential backoff.
+ *
+ * Only used on the main thread.
+ */
+public class ARAnchorScheduler {
+    private static final String TAG = "Viro";
+    private static final boolean DEBUG_ANCHORING = false;
+
+    /*
+     * Delay before the first retry of a failed anchoring; doubled on each following failure up to
+     * MAX_RETRY_DELAY_MS.
+     */
+    private static final long BASE_RETRY_DELAY_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 8000;
+
+    /**
+     * The maximum number of attempts to make when anchoring a Node.
+     */
+    private static final int MAX_ANCHORING_ATTEMPTS = 5;
+
+    /*
+     * Anchors created per batch, and the time between batches, so that placing many nodes at once
+     * doesn't stall the main thread.
+     */
+    private static final int MAX_ANCHORS_PER_BATCH = 4;
+    private static final long BATCH_INTERVAL_MS = 100;
+
+    /**
+     * Nodes closer than this to an existing anchor share it. Less than VRTNode's re-anchor
+     * distance, so moving a shared node nearby doesn't re-anchor it.
+     */
+    private static final float ANCHOR_SHARE_DISTANCE = 1.0f;
+
+    private static final class Request {
+        Vector position;
+        int attempts;
+        long notBeforeMs;
+    }
+
+    private static final class SharedAnchor {
+        final ARNode anchor;
+        int nodeCount;
+
+        SharedAnchor(ARNode anchor) {
+            this.anchor = anchor;
+        }
+    }
+
+    private final VRTARScene mScene;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Map<VRTNode, Request> mRequests = new LinkedHashMap<>();
+    private final List<SharedAnchor> mAnchors = new ArrayList<>();
+    // Null until the first tracking update, in which case anchoring is attempted anyway
+    private ARScene.TrackingState mTrackingState;
+    private long mScheduledAtMs = -1;
+
+    // Metrics
+    private long mAttempts;
+    private long mFailures;
+    private long mAnchorsCreated;
+    private long mSharedAttachments;
+    private long mAbandonedNodes;
+
+    private final Runnable mProcessBatch = new Runnable() {
+        @Override
+        public void run() {
+            mScheduledAtMs = -1;
+            processBatch();
+        }
+    };
+
+    ARAnchorScheduler(VRTARScene scene) {
+        mScene = scene;
+    }
+
+    /**
+     * Queues the node to be anchored at the given position, or updates its queued position.
+     */
+    void requestAnchor(VRTNode node, Vector position) {
+        Request request = mRequests.get(node);
+        if (request == null) {
+            request = new Request();
+            mRequests.put(node, request);
+        }
+        request.position = position;
+        request.attempts = 0;
+        request.notBeforeMs = 0;
+        schedule(SystemClock.uptimeMillis());
+    }
+
+    void cancelAnchor(VRTNode node) {
+        mRequests.remove(node);
+    }
+
+    /**
+     * Releases a node's use of an anchor created by this scheduler, detaching it once no node uses
+     * it anymore. Anchors already detached by {@link #clear()} are left alone.
+     */
+    void releaseAnchor(ARNode anchor) {
+        for (Iterator<SharedAnchor> it = mAnchors.iterator(); it.hasNext(); ) {
+            SharedAnchor shared = it.next();
+            if (shared.anchor == anchor) {
+                if (--shared.nodeCount <= 0) {
+                    it.remove();
+                    anchor.detach();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called with every tracking update of the scene, from any thread.
+     */
+    void onTrackingUpdated(final ARScene.TrackingState state) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mTrackingState = state;
+                if (isTrackingReady() && !mRequests.isEmpty()) {
+                    schedule(SystemClock.uptimeMillis());
+                }
+            }
+        });
+    }
+
+    /**
+     * Detaches every anchor once, for the scene's teardown. The nodes releasing them afterwards
+     * don't detach them again.
+     */
+    void clear() {
+        mHandler.removeCallbacksAndMessages(null);
+        mScheduledAtMs = -1;
+        mRequests.clear();
+        for (SharedAnchor shared : mAnchors) {
+            shared.anchor.detach();
+        }
+        mAnchors.clear();
+    }
+
+    public WritableMap getMetrics() {
+        int anchoredNodes = 0;
+        for (SharedAnchor shared : mAnchors) {
+            anchoredNodes += shared.nodeCount;
+        }
+        WritableMap metrics = Arguments.createMap();
+        metrics.putInt("pendingNodes", mRequests.size());
+        metrics.putBoolean("waitingForTracking", !mRequests.isEmpty() && !isTrackingReady());
+        metrics.putInt("anchors", mAnchors.size());
+        metrics.putInt("anchoredNodes", anchoredNodes);
+        metrics.putDouble("attempts", mAttempts);
+        metrics.putDouble("failures", mFailures);
+        metrics.putDouble("anchorsCreated", mAnchorsCreated);
+        metrics.putDouble("sharedAttachments", mSharedAttachments);
+        metrics.putDouble("abandonedNodes", mAbandonedNodes);
+        return metrics;
+    }
+
+    private boolean isTrackingReady() {
+        return mTrackingState == null || mTrackingState == ARScene.TrackingState.NORMAL;
+    }
+
+    private void schedule(long atMs) {
+        if (mScheduledAtMs >= 0 && mScheduledAtMs <= atMs) {
+            return;
+        }
+        mHandler.removeCallbacks(mProcessBatch);
+        mScheduledAtMs = atMs;
+        mHandler.postAtTime(mProcessBatch, atMs);
+    }
+
+    private void processBatch() {
+        // Resumed by the next normal tracking update
+        if (mRequests.isEmpty() || !isTrackingReady() || mScene.isTornDown()) {
+            return;
+        }
+
+        ARScene scene = (ARScene) mScene.getNativeScene();
+        long now = SystemClock.uptimeMillis();
+        int created = 0;
+        boolean failed = false;
+        long nextMs = Long.MAX_VALUE;
+
+        for (Iterator<Map.Entry<VRTNode, Request>> it = mRequests.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<VRTNode, Request> entry = it.next();
+            VRTNode node = entry.getKey();
+            Request request = entry.getValue();
+
+            if (node.isTornDown() || node.getParent() != mScene) {
+                it.remove();
+                continue;
+            }
+            if (request.notBeforeMs > now) {
+                nextMs = Math.min(nextMs, request.notBeforeMs);
+                continue;
+            }
+
+            SharedAnchor shared = node.canAnchor() ? findAnchor(request.position) : null;
+            if (shared == null) {
+                if (failed || created >= MAX_ANCHORS_PER_BATCH) {
+                    // Deferred to the next batch without using an attempt
+                    nextMs = Math.min(nextMs, now + (failed ? BASE_RETRY_DELAY_MS : BATCH_INTERVAL_MS));
+                    continue;
+                }
+
+                mAttempts++;
+                request.attempts++;
+                ARNode anchor = node.canAnchor() ? scene.createAnchoredNode(request.position) : null;
+                if (anchor == null) {
+                    mFailures++;
+                    node.onAnchorFailed(request.position);
+                    if (request.attempts >= MAX_ANCHORING_ATTEMPTS) {
+                        if (DEBUG_ANCHORING) {
+                            Log.w(TAG, "Failed to anchor node " + node + ": will float node without an anchor");
+                        }
+                        mAbandonedNodes++;
+                        it.remove();
+                        continue;
+                    }
+                    // The others would most likely fail for the same reason
+                    failed = true;
+                    request.notBeforeMs = now + getRetryDelay(request.attempts);
+                    nextMs = Math.min(nextMs, request.notBeforeMs);
+                    if (DEBUG_ANCHORING) {
+                        Log.i(TAG, "Failed to anchor node at " + request.position + " -- trying again later");
+                    }
+                    continue;
+                }
+
+                if (DEBUG_ANCHORING) {
+                    Log.i(TAG, "Anchor created successfully at position " + request.position);
+                }
+                created++;
+                mAnchorsCreated++;
+                scene.getRootNode().addChildNode(anchor);
+                shared = new SharedAnchor(anchor);
+                mAnchors.add(shared);
+            }
+
+            it.remove();
+            // A node moved within reach of its own anchor keeps it, and is already counted
+            if (node.getAnchor() != shared.anchor) {
+                if (shared.nodeCount > 0) {
+                    mSharedAttachments++;
+                }
+                shared.nodeCount++;
+            }
+            node.onAnchored(shared.anchor, request.position);
+        }
+
+        if (nextMs != Long.MAX_VALUE) {
+            schedule(nextMs);
+        }
+    }
+
+    private SharedAnchor findAnchor(Vector position) {
+        SharedAnchor closest = null;
+        float closestDistance = ANCHOR_SHARE_DISTANCE;
+        for (SharedAnchor shared : mAnchors) {
+            float distance = position.distance(shared.anchor.getPositionRealtime());
+            if (distance <= closestDistance) {
+                closest = shared;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    private static long getRetryDelay(int attempts) {
+        return Math.min(MAX_RETRY_DELAY_MS, BASE_RETRY_DELAY_MS << Math.min(attempts - 1, 16));
+    }
+}
@@ -24,12 +24,12 @@ package com.viromedia.bridge.component.node;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.ARAnchor;
 import com.viro.core.internal.ARDeclarativeNode;
 import com.viro.core.ARNode;
 import com.viromedia.bridge.utility.ARUtils;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 public class VRTARNode extends VRTNode implements ARDeclarativeNode.Delegate {
 
@@ -58,7 +58,7 @@ public class VRTARNode extends VRTNode implements ARDeclarativeNode.Delegate {
         WritableMap returnMap = Arguments.createMap();
         returnMap.putMap("anchorFoundMap", ARUtils.mapFromARAnchor(arAnchor));
         android.util.Log.d("ViroARNode", "Sending ON_ANCHOR_FOUND event to JS, view id: " + getId());
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_ANCHOR_FOUND,
                 returnMap);
@@ -68,7 +68,7 @@ public class VRTARNode extends VRTNode implements ARDeclarativeNode.Delegate {
     public void onAnchorUpdated(ARAnchor arAnchor) {
         WritableMap returnMap = Arguments.createMap();
         returnMap.putMap("anchorUpdatedMap", ARUtils.mapFromARAnchor(arAnchor));
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_ANCHOR_UPDATED,
                 returnMap);
@@ -78,7 +78,7 @@ public class VRTARNode extends VRTNode implements ARDeclarativeNode.Delegate {
     public void onAnchorRemoved() {
         mIsAnchored = false;
         handleAppearanceChange();
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_ANCHOR_REMOVED,
                 null);
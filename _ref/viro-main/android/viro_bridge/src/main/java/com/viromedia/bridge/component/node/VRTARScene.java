@@ -24,13 +24,14 @@ package com.viromedia.bridge.component.node;
 import android.graphics.Bitmap;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.ARAnchor;
 import com.viro.core.internal.ARDeclarativeNode;
 
@@ -48,6 +49,7 @@ import com.viromedia.bridge.utility.ARUtils;
 import com.viromedia.bridge.utility.ImageDownloadListener;
 import com.viromedia.bridge.utility.ImageDownloader;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 import java.util.EnumSet;
 
@@ -63,6 +65,41 @@ public class VRTARScene extends VRTScene implements ARScene.Listener {
     private static final String AMBIENT_LIGHT_INFO_KEY = "ambientLightInfo";
     private static final String AMBIENT_INTENSITY_KEY = "intensity";
     private static final String AMBIENT_COLOR_KEY = "color";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Controls how often the light estimation and tracking callbacks reach JS. The defaults emit
+     * every estimate and every tracking change, as before.
+     */
+    private static final class UpdateOptions {
+        // Minimum time between light updates, 0 emits every estimate (each frame)
+        final long lightUpdateIntervalMs;
+        // Weight of the previous smoothed value, in [0, 1); 0 disables smoothing
+        final float lightSmoothing;
+        // Smallest change of the intensity, in lumens, and of a color channel, in [0, 1], emitted
+        final float intensityThreshold;
+        final float colorThreshold;
+        // Emits the color as [r, g, b] in [0, 1] instead of a hex string
+        final boolean numericColor;
+        // Minimum time between tracking updates; the latest state is emitted once it has passed
+        final long trackingUpdateIntervalMs;
+
+        UpdateOptions(ReadableMap map) {
+            lightUpdateIntervalMs = map != null && map.hasKey("lightUpdateInterval")
+                    ? Math.max(0, (long) map.getDouble("lightUpdateInterval")) : 0;
+            lightSmoothing = map != null && map.hasKey("lightSmoothing")
+                    ? Math.max(0f, Math.min(0.99f, (float) map.getDouble("lightSmoothing"))) : 0f;
+            intensityThreshold = map != null && map.hasKey("intensityThreshold")
+                    ? Math.max(0f, (float) map.getDouble("intensityThreshold")) : 0f;
+            colorThreshold = map != null && map.hasKey("colorThreshold")
+                    ? Math.max(0f, (float) map.getDouble("colorThreshold")) : 0f;
+            numericColor = map != null && map.hasKey("colorFormat")
+                    && "rgb".equals(map.getString("colorFormat"));
+            trackingUpdateIntervalMs = map != null && map.hasKey("trackingUpdateInterval")
+                    ? Math.max(0, (long) map.getDouble("trackingUpdateInterval")) : 0;
+        }
+    }
+
     private Quad mPointCloudQuad;
     private PointCloudImageDownloadListener mImageDownloadListener;
     private Handler mMainHandler;
@@ -71,6 +108,29 @@ public class VRTARScene extends VRTScene implements ARScene.Listener {
     private ARScene.OcclusionMode mPendingOcclusionMode = null;
     private boolean mSceneDidAppear = false;
 
+    private final ARAnchorScheduler mAnchorScheduler = new ARAnchorScheduler(this);
+
+    private volatile UpdateOptions mUpdateOptions = new UpdateOptions(null);
+
+    // Light estimation state, on the thread delivering the estimates
+    private boolean mHasLightEstimate = false;
+    private float mSmoothedIntensity;
+    private float mSmoothedRed;
+    private float mSmoothedGreen;
+    private float mSmoothedBlue;
+    private boolean mHasEmittedLight = false;
+    private long mLastLightEmitMs;
+    private float mEmittedIntensity;
+    private float mEmittedRed;
+    private float mEmittedGreen;
+    private float mEmittedBlue;
+
+    // Tracking state, guarded by mTrackingLock
+    private final Object mTrackingLock = new Object();
+    private long mLastTrackingEmitMs;
+    private ARScene.TrackingState mPendingTrackingState;
+    private ARScene.TrackingStateReason mPendingTrackingReason;
+
     public VRTARScene(ReactContext reactContext) {
         super(reactContext);
         mMainHandler = new Handler(Looper.getMainLooper());
@@ -153,6 +213,16 @@ public class VRTARScene extends VRTScene implements ARScene.Listener {
         mEventDelegateJni.setEventEnabled(EventDelegate.EventAction.ON_AR_POINT_CLOUD_UPDATE, canARPointCloudUpdate);
     }
 
+    public ARAnchorScheduler getAnchorScheduler() {
+        return mAnchorScheduler;
+    }
+
+    public void setUpdateOptions(ReadableMap options) {
+        mUpdateOptions = new UpdateOptions(options);
+        mHasLightEstimate = false;
+        mHasEmittedLight = false;
+    }
+
     public void setOcclusionMode(ARScene.OcclusionMode mode) {
         mPendingOcclusionMode = mode;
         if (mSceneDidAppear) {
@@ -169,15 +239,61 @@ public class VRTARScene extends VRTScene implements ARScene.Listener {
         }
     }
 
+    @Override
+    public void onTearDown() {
+        mAnchorScheduler.clear();
+        super.onTearDown();
+    }
+
     // -- ARSceneDelegate Implementation --
 
     @Override
     public void onTrackingUpdated(ARScene.TrackingState state, ARScene.TrackingStateReason reason) {
+        mAnchorScheduler.onTrackingUpdated(state);
+
+        long intervalMs = mUpdateOptions.trackingUpdateIntervalMs;
+        if (intervalMs <= 0) {
+            emitTrackingUpdate(state, reason);
+            return;
+        }
+
+        synchronized (mTrackingLock) {
+            long now = SystemClock.uptimeMillis();
+            boolean scheduled = mPendingTrackingState != null;
+            mPendingTrackingState = state;
+            mPendingTrackingReason = reason;
+            if (scheduled) {
+                // The scheduled update will emit this state instead
+                return;
+            }
+            mMainHandler.postAtTime(mEmitPendingTracking, Math.max(now, mLastTrackingEmitMs + intervalMs));
+        }
+    }
+
+    private final Runnable mEmitPendingTracking = new Runnable() {
+        @Override
+        public void run() {
+            ARScene.TrackingState state;
+            ARScene.TrackingStateReason reason;
+            synchronized (mTrackingLock) {
+                state = mPendingTrackingState;
+                reason = mPendingTrackingReason;
+                mPendingTrackingState = null;
+                mPendingTrackingReason = null;
+                mLastTrackingEmitMs = SystemClock.uptimeMillis();
+            }
+            if (state != null && !isTornDown()) {
+                emitTrackingUpdate(state, reason);
+            }
+        }
+    };
+
+    private void emitTrackingUpdate(ARScene.TrackingState state, ARScene.TrackingStateReason reason) {
         WritableMap returnMap = Arguments.createMap();
         returnMap.putInt("state", state.getId());
         returnMap.putInt("reason", reason.getId());
 
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_TRACKING_UPDATED,
                 returnMap);
@@ -190,6 +306,8 @@ public class VRTARScene extends VRTScene implements ARScene.Listener {
 
     @Override
     public void onAmbientLightUpdate(float intensity, Vector color) {
+        UpdateOptions options = mUpdateOptions;
+
         // Multiply by the inverse of the rebalancing factor to compensate for the
         // brightness reduction caused by rebalancing color correction.
         float lightIntensity = intensity * 1.0f / kLightEstimateIntensityRebalance;
@@ -198,30 +316,87 @@ public class VRTARScene extends VRTScene implements ARScene.Listener {
         // to linear color, then rebalance so the values do not breach 1.0. The brightness is
         // diminished but this is compensated by multiplying estimated intensity by the inverse
         // of the rebalance constant (above).
-        String lightColor = String.format("#%02x%02x%02x",
-                (int) Math.min(255, Math.max(0, color.x * kLightEstimateIntensityRebalance * 255)),
-                (int) Math.min(255, Math.max(0, color.y * kLightEstimateIntensityRebalance * 255)),
-                (int) Math.min(255, Math.max(0, color.z * kLightEstimateIntensityRebalance * 255)));
+        float red = Math.min(1f, Math.max(0f, color.x * kLightEstimateIntensityRebalance));
+        float green = Math.min(1f, Math.max(0f, color.y * kLightEstimateIntensityRebalance));
+        float blue = Math.min(1f, Math.max(0f, color.z * kLightEstimateIntensityRebalance));
+
+        // Smooth every estimate, emitted or not, so the smoothing doesn't depend on the rate limit
+        if (!mHasLightEstimate || options.lightSmoothing <= 0f) {
+            mSmoothedIntensity = lightIntensity;
+            mSmoothedRed = red;
+            mSmoothedGreen = green;
+            mSmoothedBlue = blue;
+            mHasLightEstimate = true;
+        } else {
+            float weight = 1f - options.lightSmoothing;
+            mSmoothedIntensity += (lightIntensity - mSmoothedIntensity) * weight;
+            mSmoothedRed += (red - mSmoothedRed) * weight;
+            mSmoothedGreen += (green - mSmoothedGreen) * weight;
+            mSmoothedBlue += (blue - mSmoothedBlue) * weight;
+        }
+
+        long now = SystemClock.uptimeMillis();
+        if (mHasEmittedLight) {
+            if (now - mLastLightEmitMs < options.lightUpdateIntervalMs) {
+                return;
+            }
+            boolean changed = Math.abs(mSmoothedIntensity - mEmittedIntensity) > options.intensityThreshold
+                    || Math.abs(mSmoothedRed - mEmittedRed) > options.colorThreshold
+                    || Math.abs(mSmoothedGreen - mEmittedGreen) > options.colorThreshold
+                    || Math.abs(mSmoothedBlue - mEmittedBlue) > options.colorThreshold;
+            if (!changed && (options.intensityThreshold > 0f || options.colorThreshold > 0f)) {
+                return;
+            }
+        }
+        mHasEmittedLight = true;
+        mLastLightEmitMs = now;
+        mEmittedIntensity = mSmoothedIntensity;
+        mEmittedRed = mSmoothedRed;
+        mEmittedGreen = mSmoothedGreen;
+        mEmittedBlue = mSmoothedBlue;
 
         WritableMap lightInfoMap = Arguments.createMap();
-        lightInfoMap.putDouble(AMBIENT_INTENSITY_KEY, (double) lightIntensity);
-        lightInfoMap.putString(AMBIENT_COLOR_KEY, lightColor);
+        lightInfoMap.putDouble(AMBIENT_INTENSITY_KEY, (double) mSmoothedIntensity);
+        if (options.numericColor) {
+            WritableArray lightColor = Arguments.createArray();
+            lightColor.pushDouble(mSmoothedRed);
+            lightColor.pushDouble(mSmoothedGreen);
+            lightColor.pushDouble(mSmoothedBlue);
+            lightInfoMap.putArray(AMBIENT_COLOR_KEY, lightColor);
+        } else {
+            lightInfoMap.putString(AMBIENT_COLOR_KEY, toHexColor(mSmoothedRed, mSmoothedGreen, mSmoothedBlue));
+        }
 
         WritableMap event = Arguments.createMap();
         event.putMap(AMBIENT_LIGHT_INFO_KEY, lightInfoMap);
 
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_AMBIENT_LIGHT_UPDATE,
                 event);
     }
 
+    private static String toHexColor(float red, float green, float blue) {
+        char[] hex = new char[7];
+        hex[0] = '#';
+        putHexByte(hex, 1, red);
+        putHexByte(hex, 3, green);
+        putHexByte(hex, 5, blue);
+        return new String(hex);
+    }
+
+    private static void putHexByte(char[] hex, int offset, float channel) {
+        int value = (int) (channel * 255);
+        hex[offset] = HEX_DIGITS[value >> 4];
+        hex[offset + 1] = HEX_DIGITS[value & 0xf];
+    }
+
     @Override
     public void onAnchorFound(ARAnchor arAnchor, ARNode node) {
         WritableMap returnMap = Arguments.createMap();
         returnMap.putMap("anchor", ARUtils.mapFromARAnchor(arAnchor));
 
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
             getId(),
             ViroEvents.ON_ANCHOR_FOUND,
             returnMap);
@@ -232,7 +407,7 @@ public class VRTARScene extends VRTScene implements ARScene.Listener {
         WritableMap returnMap = Arguments.createMap();
         returnMap.putMap("anchor", ARUtils.mapFromARAnchor(arAnchor));
 
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
             getId(),
             ViroEvents.ON_ANCHOR_UPDATED,
             returnMap);
@@ -243,7 +418,7 @@ public class VRTARScene extends VRTScene implements ARScene.Listener {
         WritableMap returnMap = Arguments.createMap();
         returnMap.putMap("anchor", ARUtils.mapFromARAnchor(arAnchor));
 
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
             getId(),
             ViroEvents.ON_ANCHOR_REMOVED,
             returnMap);
@@ -90,6 +90,11 @@ public class VRTARSceneManager extends VRTSceneManager<VRTARScene> {
         scene.setCanCameraARHitTest(canCameraARHitTest);
     }
 
+    @ReactProp(name = "arUpdateOptions")
+    public void setUpdateOptions(VRTARScene scene, @Nullable ReadableMap options) {
+        scene.setUpdateOptions(options);
+    }
+
     @ReactProp(name = "canARPointCloudUpdate", defaultBoolean = VRTNode.DEFAULT_CAN_AR_POINT_CLOUD_UPDATE)
     public void setCanARPointCloudUpdate(VRTARScene scene, boolean canARPointCloudUpdate) {
         scene.setCanARPointCloudUpdate(canARPointCloudUpdate);
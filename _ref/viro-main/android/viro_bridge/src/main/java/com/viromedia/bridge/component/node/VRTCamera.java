@@ -29,6 +29,8 @@ import com.viro.core.Vector;
 import com.viromedia.bridge.component.node.VRTNode;
 import com.viromedia.bridge.utility.Helper;
 
+import java.util.Arrays;
+
 public class VRTCamera extends VRTNode {
     protected static final float DEFAULT_FOV = 0;
     private float mFieldOfView = DEFAULT_FOV;
@@ -78,6 +80,16 @@ public class VRTCamera extends VRTNode {
         return mPosition;
     }
 
+    @Override
+    public void setTransform(float[] values, int offset) {
+        // The camera's transform is pushed to the native Camera in onPropsSet, so go through the
+        // regular setters rather than the in-place fast path.
+        setPosition(Arrays.copyOfRange(values, offset, offset + 3));
+        setRotation(Arrays.copyOfRange(values, offset + 3, offset + 6));
+        setScale(Arrays.copyOfRange(values, offset + 6, offset + 9));
+        onPropsSet();
+    }
+
     public void setFieldOfView(float fov){
         mFieldOfView = fov;
     }
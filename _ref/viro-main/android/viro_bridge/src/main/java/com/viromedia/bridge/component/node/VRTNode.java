@@ -22,8 +22,6 @@
 package com.viromedia.bridge.component.node;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.View;
@@ -40,9 +38,7 @@ import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.IllegalViewOperationException;
 import com.facebook.react.uimanager.PixelUtil;
 
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.ARNode;
-import com.viro.core.ARScene;
 import com.viro.core.Geometry;
 import com.viro.core.EventDelegate;
 import com.viro.core.Material;
@@ -71,9 +67,11 @@ import com.viromedia.bridge.utility.ComponentEventDelegate;
 import com.viromedia.bridge.utility.Helper;
 import com.viromedia.bridge.utility.ViroEvents;
 import com.viromedia.bridge.utility.ViroLog;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -95,125 +93,6 @@ public class VRTNode extends VRTComponent {
      */
     private static final float REANCHOR_DISTANCE = 3.5f;
 
-    /*
-     * The amount of time to wait before attempting to anchor a Node again after an anchor
-     * failure.
-     */
-    private static final long ANCHOR_DELAY_MS = 1000;
-
-    /**
-     * The maximum number of attempts to make when anchoring a Node.
-     */
-    private static final int MAX_ANCHORING_ATTEMPTS = 3;
-
-    private static final class AnchorAttempt {
-
-        private int mAttempt;
-        private Vector mPosition;
-        private WeakReference<VRTNode> mNode;
-        private Handler mHandler;
-        private boolean mCanceled = false;
-
-        public AnchorAttempt(VRTNode node, Vector position) {
-            mNode = new WeakReference<VRTNode>(node);
-            mAttempt = 0;
-            mPosition = position;
-            mHandler = new Handler(Looper.getMainLooper());
-        }
-
-        public void makeAttempt() {
-            VRTNode node = mNode.get();
-            if (node == null) {
-                return;
-            }
-            if (mCanceled) {
-                if (DEBUG_ANCHORING) {
-                    Log.w(TAG, "Anchor attempt canceled for " + node + "");
-                }
-                return;
-            }
-            if (mAttempt >= MAX_ANCHORING_ATTEMPTS) {
-                if (DEBUG_ANCHORING) {
-                    Log.w(TAG, "Failed to anchor node " + node + ": will float node without an anchor");
-                }
-                return;
-            }
-            boolean success = anchorNode(node, mPosition);
-            ++mAttempt;
-
-            if (!success) {
-                // On failure, try again after a delay
-                mHandler.postDelayed(new Runnable() {
-                    @Override
-                    public void run() {
-                        makeAttempt();
-                    }
-                }, ANCHOR_DELAY_MS);
-            } else {
-                // On success, remove the anchor attempt from the node
-                node.mAnchorAttempt = null;
-            }
-        }
-
-        /**
-         * Anchor this node by creating an anchored node at the given position, then parenting this
-         * node with the anchor and setting this node to the origin. Note that this node's current
-         * position is ignored. If anchoring fails, then the node is simply set to the position, and
-         * we try again later.
-         *
-         * @param position The position at which to anchor the node.
-         * @return True if anchoring succeeded.
-         */
-        private boolean anchorNode(final VRTNode node, final Vector position) {
-            if (DEBUG_ANCHORING) {
-                Log.i(TAG, "Anchoring node " + node + " [attempt " + mAttempt + "]");
-            }
-
-            if (node == null || node.isTornDown() || node.getParent() == null) {
-                return false;
-            }
-
-            final ARScene scene = (ARScene) ((VRTARScene) node.getParent()).getNativeScene();
-            if (node.mViroContext == null) {
-                if (DEBUG_ANCHORING) {
-                    Log.i(TAG, "   Delaying anchoring: ViroContext is null");
-                }
-                return false;
-            }
-
-            node.mAnchor = scene.createAnchoredNode(position);
-
-            if (node.mAnchor != null) {
-                if (DEBUG_ANCHORING) {
-                    Log.i(TAG, "Anchor created successfully at position " + position + ", repositioning Node to origin");
-                }
-
-                node.mNodeJni.removeFromParentNode();
-                scene.getRootNode().addChildNode(node.mAnchor);
-                node.mAnchor.addChildNode(node.mNodeJni);
-                node.mNodeJni.setPosition(new Vector(0, 0, 0));
-
-                return true;
-            } else {
-                // Anchor failed: simply set the node to the position and try again later
-                if (DEBUG_ANCHORING) {
-                    Log.i(TAG, "Failed to anchor node at " + position + " -- trying again later");
-                }
-                node.mNodeJni.setPosition(position);
-
-                return false;
-            }
-        }
-
-        public void setPosition(Vector position) {
-            mPosition = position;
-        }
-
-        public void cancel() {
-            mCanceled = true;
-        }
-    }
-
     public static class NodeAnimation extends VRTManagedAnimation {
 
         protected String mAnimationName;
@@ -267,9 +146,16 @@ public class VRTNode extends VRTComponent {
     protected final static double TRANSFORM_DELEGATE_DISTANCE_FILTER = 0.01;
     protected final static boolean DEFAULT_IGNORE_EVENT_HANDLING = false;
 
+    // Number of values in a packed transform: position, rotation (degrees) and scale.
+    public final static int TRANSFORM_VALUE_COUNT = 9;
+
+    // Reused by setTransform so streamed transforms don't allocate. Only touched on the UI thread.
+    private static final Vector sTransformScratch = new Vector();
+
     private Node mNodeJni;
     private ARNode mAnchor;
-    private AnchorAttempt mAnchorAttempt;
+    // Scheduler this node has requested an anchor from, kept to cancel and release with it
+    private ARAnchorScheduler mAnchorScheduler;
     protected float[] mPosition;
     protected float[] mRotation;
     protected float[] mScale;
@@ -280,6 +166,10 @@ public class VRTNode extends VRTComponent {
     protected int mRenderingOrder = 0;
     protected boolean mHighAccuracyEventsEnabled = false;
     protected boolean mIgnoreEventHandling = false;
+    // False while this node is inside a dehydrated VRTPortalScene interior
+    protected boolean mHydrated = true;
+    // True if this node binds the shared materials rather than its own copies of them
+    protected boolean mStaticBatching = false;
 
     protected int mLightReceivingBitMask = 1;
     protected int mShadowCastingBitMask = 1;
@@ -351,10 +241,9 @@ public class VRTNode extends VRTComponent {
     @Override
     public void onTearDown() {
         try {
-            // Cancel any ongoing anchor attempts
-            if (mAnchorAttempt != null) {
-                mAnchorAttempt.cancel();
-                mAnchorAttempt = null;
+            // Cancel any pending anchor request
+            if (mAnchorScheduler != null) {
+                mAnchorScheduler.cancelAnchor(this);
             }
             
             // Clean up animation resources
@@ -401,7 +290,7 @@ public class VRTNode extends VRTComponent {
             
             // Clean up anchor
             if (mAnchor != null) {
-                mAnchor.detach();
+                releaseAnchor(mAnchor);
                 mAnchor = null;
             }
         } catch (Exception e) {
@@ -424,6 +313,9 @@ public class VRTNode extends VRTComponent {
             } else if (child instanceof VRTNode) {
                 final VRTNode childNode = (VRTNode) child;
                 mNodeJni.addChildNode(childNode.mNodeJni);
+                if (!mHydrated) {
+                    childNode.setHydrated(false);
+                }
             } else if (child instanceof VRTAnimatedComponent) {
                 // We want the AnimatedComponent to be "invisible" to the scene graph so we need to add
                 // the children of the AnimatedComponent to the parent of the AnimatedComponent natively.
@@ -522,21 +414,21 @@ public class VRTNode extends VRTComponent {
         }
 
         /*
-         If there is already an anchoring attempt in process, cancel it.
+         If there is already an anchor request pending, cancel it.
          */
-        if (mAnchorAttempt != null) {
-            mAnchorAttempt.cancel();
+        if (mAnchorScheduler != null) {
+            mAnchorScheduler.cancelAnchor(this);
         }
 
         /*
-         If this node is at the root of an ARScene, then we will try to create an anchor for the
-         VRONode and make the VRONode a child of the anchor. This ensures ARCore stability.
+         If this node is at the root of an ARScene, then the scene's anchor scheduler will create
+         or share an anchor for the VRONode and make the VRONode a child of the anchor. This
+         ensures ARCore stability.
          */
         ViewParent parent = getParent();
         if (parent instanceof VRTARScene) {
             if (mAnchor == null) {
-                mAnchorAttempt = new AnchorAttempt(this, new Vector(mPosition));
-                mAnchorAttempt.makeAttempt();
+                requestAnchor((VRTARScene) parent, new Vector(mPosition));
             }
         }
 
@@ -549,7 +441,8 @@ public class VRTNode extends VRTComponent {
                 if (DEBUG_ANCHORING) {
                     Log.i(TAG, "Anchored node " + this + " is being removed or repurposed, detaching anchor");
                 }
-                mAnchor.detach();
+                releaseAnchor(mAnchor);
+                mAnchor = null;
 
                 // The Node may already be torn down
                 if (mNodeJni != null) {
@@ -559,11 +452,106 @@ public class VRTNode extends VRTComponent {
         }
     }
 
+    private void requestAnchor(VRTARScene scene, Vector position) {
+        mAnchorScheduler = scene.getAnchorScheduler();
+        mAnchorScheduler.requestAnchor(this, position);
+    }
+
+    private void releaseAnchor(ARNode anchor) {
+        if (mAnchorScheduler != null) {
+            mAnchorScheduler.releaseAnchor(anchor);
+        } else {
+            anchor.detach();
+        }
+    }
+
+    /**
+     * @return True if the scheduler can create an anchor for this node now.
+     */
+    boolean canAnchor() {
+        if (mViroContext == null) {
+            if (DEBUG_ANCHORING) {
+                Log.i(TAG, "   Delaying anchoring: ViroContext is null");
+            }
+            return false;
+        }
+        return mNodeJni != null;
+    }
+
+    /**
+     * Parents this node with the given anchor, keeping it at the given position. The anchor may
+     * be shared with other nodes nearby, so the node is offset from it.
+     */
+    void onAnchored(ARNode anchor, Vector position) {
+        ARNode previousAnchor = mAnchor;
+        mAnchor = anchor;
+        mNodeJni.removeFromParentNode();
+        anchor.addChildNode(mNodeJni);
+        mNodeJni.setPosition(toAnchorSpace(anchor, position));
+
+        // Re-anchored after moving away from the previous anchor
+        if (previousAnchor != null && previousAnchor != anchor) {
+            releaseAnchor(previousAnchor);
+        }
+    }
+
+    ARNode getAnchor() {
+        return mAnchor;
+    }
+
+    /**
+     * Converts a scene position into the space of the given anchor, which ARCore may have rotated
+     * as well as moved.
+     */
+    private static Vector toAnchorSpace(ARNode anchor, Vector position) {
+        return anchor.getWorldTransformRealTime().invert().multiply(position);
+    }
+
+    /**
+     * Floats the node at the position until the scheduler tries again.
+     */
+    void onAnchorFailed(Vector position) {
+        if (mNodeJni != null && mAnchor == null) {
+            mNodeJni.setPosition(position);
+        }
+    }
+
     @Override
     public boolean shouldAppear() {
         return super.shouldAppear() && mVisible;
     }
 
+    /**
+     * Invoked by a lazily hydrated VRTPortalScene when this node's subtree should load its
+     * resources (hydrated) or release them (dehydrated). The state is propagated to all
+     * descendant nodes. Nodes that own models, textures or similar heavy resources override
+     * this to defer or release them, and must call super.
+     */
+    public void setHydrated(boolean hydrated) {
+        if (mHydrated == hydrated) {
+            return;
+        }
+        mHydrated = hydrated;
+
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child instanceof VRTNode) {
+                ((VRTNode) child).setHydrated(hydrated);
+            } else if (child instanceof VRTAnimatedComponent) {
+                VRTAnimatedComponent animatedComponent = (VRTAnimatedComponent) child;
+                for (int j = 0; j < animatedComponent.getChildCount(); j++) {
+                    if (animatedComponent.getChildAt(j) instanceof VRTNode) {
+                        ((VRTNode) animatedComponent.getChildAt(j)).setHydrated(hydrated);
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean isHydrated() {
+        return mHydrated;
+    }
+
     @Override
     protected void handleAppearanceChange() {
         if (mNodeJni != null) {
@@ -721,8 +709,8 @@ public class VRTNode extends VRTComponent {
         /*
          If this is an anchored node and it's moved, determine if we need to re-anchor the
          node or if we can just move the node. If we just move the node, we have to take into
-         the account the anchor's position (e.g. set the Node position to the new position
-         minus the anchor's position in order to get the correct aggregate position).
+         the account the anchor's transform (e.g. set the Node position to the new position
+         in the anchor's space in order to get the correct aggregate position).
          */
         if (mAnchor != null) {
             if (DEBUG_ANCHORING) {
@@ -732,17 +720,16 @@ public class VRTNode extends VRTComponent {
                 if (DEBUG_ANCHORING) {
                     Log.i(TAG, "   Reposition distance greater than REANCHOR_DISTANCE: re-anchoring Node");
                 }
-                if (mAnchorAttempt != null) {
-                    mAnchorAttempt.cancel();
+                // Moved relative to the current anchor until the new one is created
+                mNodeJni.setPosition(toAnchorSpace(mAnchor, vPosition));
+                if (getParent() instanceof VRTARScene) {
+                    requestAnchor((VRTARScene) getParent(), vPosition);
                 }
-                mAnchorAttempt = new AnchorAttempt(this, vPosition);
-                mAnchorAttempt.makeAttempt();
             } else {
                 if (DEBUG_ANCHORING) {
                     Log.i(TAG, "   Reposition distance less than REANCHOR_DISTANCE: moving node relative to anchor");
                 }
-                Vector nodePosition = vPosition.subtract(mAnchor.getPositionRealtime());
-                mNodeJni.setPosition(nodePosition);
+                mNodeJni.setPosition(toAnchorSpace(mAnchor, vPosition));
             }
         } else {
             mNodeJni.setPosition(vPosition);
@@ -797,6 +784,48 @@ public class VRTNode extends VRTComponent {
         mNodeJni.setScalePivot(new Vector(pivot));
     }
 
+    /**
+     * Applies a packed [px, py, pz, rx, ry, rz, sx, sy, sz] transform (rotation in degrees) read
+     * from values starting at offset. This is the path taken by streamed transforms: the node's
+     * transform arrays are updated in place, the native setters are fed from a shared scratch
+     * vector, and components that haven't changed are not sent to the renderer at all.
+     */
+    public void setTransform(float[] values, int offset) {
+        if (isTornDown()) {
+            return;
+        }
+
+        if (!rangeEquals(mPosition, values, offset)) {
+            if (mAnchor != null) {
+                // Moving an anchored node may require re-anchoring, which setPosition handles.
+                setPosition(Arrays.copyOfRange(values, offset, offset + 3));
+            } else {
+                System.arraycopy(values, offset, mPosition, 0, 3);
+                sTransformScratch.set(values[offset], values[offset + 1], values[offset + 2]);
+                mNodeJni.setPosition(sTransformScratch);
+            }
+        }
+
+        if (!rangeEquals(mRotation, values, offset + 3)) {
+            System.arraycopy(values, offset + 3, mRotation, 0, 3);
+            sTransformScratch.set((float) Math.toRadians(values[offset + 3]),
+                    (float) Math.toRadians(values[offset + 4]),
+                    (float) Math.toRadians(values[offset + 5]));
+            mNodeJni.setRotation(sTransformScratch);
+        }
+
+        if (!rangeEquals(mScale, values, offset + 6)) {
+            System.arraycopy(values, offset + 6, mScale, 0, 3);
+            sTransformScratch.set(values[offset + 6], values[offset + 7], values[offset + 8]);
+            mNodeJni.setScale(sTransformScratch);
+        }
+    }
+
+    private static boolean rangeEquals(float[] current, float[] values, int offset) {
+        return current[0] == values[offset] && current[1] == values[offset + 1]
+                && current[2] == values[offset + 2];
+    }
+
     protected void setOpacity(float opacity) {
         if (isTornDown()) {
             return;
@@ -852,7 +881,7 @@ public class VRTNode extends VRTComponent {
         mNodeJni.setGeometry(geometry);
         if (mMaterials != null) {
             setMaterials(mMaterials);
-            geometry.copyAndSetMaterials(mMaterials);
+            bindMaterials(geometry, mMaterials);
         }
     }
 
@@ -887,7 +916,30 @@ public class VRTNode extends VRTComponent {
         }
         mMaterials = materials;
         if (mNodeJni.getGeometry() != null) {
-            mNodeJni.getGeometry().copyAndSetMaterials(materials);
+            bindMaterials(mNodeJni.getGeometry(), materials);
+        }
+    }
+
+    /**
+     * Static nodes are bound to the shared material instances held by the MaterialManager, so
+     * every static node using "gold" renders with the same native material and the renderer can
+     * group them together. All other nodes get their own copies, which they are free to animate.
+     */
+    public void setStaticBatching(boolean staticBatching) {
+        if (mStaticBatching == staticBatching) {
+            return;
+        }
+        mStaticBatching = staticBatching;
+        if (mMaterials != null) {
+            applyMaterials();
+        }
+    }
+
+    protected void bindMaterials(Geometry geometry, List<Material> materials) {
+        if (mStaticBatching) {
+            geometry.setMaterials(materials);
+        } else {
+            geometry.copyAndSetMaterials(materials);
         }
     }
 
@@ -1427,7 +1479,7 @@ public class VRTNode extends VRTComponent {
             event.putArray("collidedPoint", points);
             event.putArray("collidedNormal", normals);
 
-            node.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+            ViroTelemetry.receiveEvent(node.getReactContext(),
                     node.getId(),
                     ViroEvents.ON_COLLIDED,
                     event);
@@ -1465,7 +1517,7 @@ public class VRTNode extends VRTComponent {
             WritableMap event = Arguments.createMap();
             event.putArray("position", position);
 
-            node.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+            ViroTelemetry.receiveEvent(node.getReactContext(),
                     node.getId(),
                     ViroEvents.ON_TRANSFORM_DELEGATE,
                     event);
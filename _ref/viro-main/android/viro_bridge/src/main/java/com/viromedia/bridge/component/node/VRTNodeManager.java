@@ -124,17 +124,19 @@ public abstract class VRTNodeManager<T extends VRTNode> extends VRTViroViewGroup
         void apply(T view) throws Exception;
     }
 
+    // Position and rotation defaults are allocated per call: nodes update these arrays in place
+    // when transforms are streamed, so they must never share DEFAULT_ZERO_VEC.
     @ReactProp(name = "position")
     public void setPosition(T view, ReadableArray position) {
         safelyApplyProp(view, "position", v ->
-            v.setPosition(Helper.toFloatArray(position, DEFAULT_ZERO_VEC))
+            v.setPosition(Helper.toFloatArray(position, new float[]{0,0,0}))
         );
     }
 
     @ReactProp(name = "rotation")
     public void setRotation(T view, ReadableArray rotation) {
         safelyApplyProp(view, "rotation", v ->
-            v.setRotation(Helper.toFloatArray(rotation, DEFAULT_ZERO_VEC))
+            v.setRotation(Helper.toFloatArray(rotation, new float[]{0,0,0}))
         );
     }
 
@@ -277,6 +279,11 @@ public abstract class VRTNodeManager<T extends VRTNode> extends VRTViroViewGroup
         });
     }
 
+    @ReactProp(name = "staticBatching", defaultBoolean = false)
+    public void setStaticBatching(T view, boolean staticBatching) {
+        safelyApplyProp(view, "staticBatching", v -> v.setStaticBatching(staticBatching));
+    }
+
     @ReactProp(name = "transformBehaviors")
     public void setTransformBehaviors(T view, @Nullable ReadableArray transformBehaviors) {
         safelyApplyProp(view, "transformBehaviors", v -> {
@@ -21,19 +21,58 @@
 
 package com.viromedia.bridge.component.node;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.view.View;
 
 import com.facebook.react.bridge.ReactContext;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
+import com.facebook.react.bridge.ReadableMap;
 import com.viro.core.Node;
 import com.viro.core.Portal;
 import com.viro.core.PortalScene;
+import com.viro.core.Renderer;
+import com.viro.core.Vector;
+import com.viromedia.bridge.component.VRTComponent;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 public class VRTPortalScene extends VRTNode  {
+    private static final float DEFAULT_HYDRATE_DISTANCE = 10f;
+    private static final float DEFAULT_VIEW_ANGLE = 70f;
+    private static final long DEFAULT_DEHYDRATE_DELAY_MS = 2000;
+    // Extra distance / angle the portal has to move past before it is dehydrated again.
+    private static final float DEFAULT_DISTANCE_HYSTERESIS = 0.25f;
+    private static final float VIEW_ANGLE_HYSTERESIS = 10f;
+    // How often the camera is checked against the portal, and how quickly children are
+    // brought in one by one once the portal is hydrating.
+    private static final long HYDRATION_CHECK_INTERVAL_MS = 250;
+    private static final long PROGRESSIVE_HYDRATION_INTERVAL_MS = 50;
+
     private PortalScene mPortalScene;
+
+    // Lazy hydration configuration; hydration is off (everything loads on mount) unless set
+    private boolean mLazyHydration = false;
+    private float mHydrateDistance = DEFAULT_HYDRATE_DISTANCE;
+    private float mDehydrateDistance = DEFAULT_HYDRATE_DISTANCE * (1 + DEFAULT_DISTANCE_HYSTERESIS);
+    private float mViewAngle = DEFAULT_VIEW_ANGLE;
+    private long mDehydrateDelayMs = DEFAULT_DEHYDRATE_DELAY_MS;
+
+    private boolean mInteriorHydrated = true;
+    private long mOutOfRangeSince = -1;
+    // Interior children that have been hydrated so far; filled progressively after hydration.
+    private final Set<View> mHydratedChildren = Collections.newSetFromMap(new IdentityHashMap<View, Boolean>());
+    // Interior children still waiting for their hydration step, in child order.
+    private final ArrayDeque<View> mPendingChildren = new ArrayDeque<>();
+    private final Handler mHydrationHandler = new Handler(Looper.getMainLooper());
+    private final HydrationCheck mHydrationCheck = new HydrationCheck(this);
+
     private static class PortalDelegate implements PortalScene.EntryListener  {
 
         private WeakReference<VRTPortalScene> mPortalScene;
@@ -60,6 +99,27 @@ public class VRTPortalScene extends VRTNode  {
         }
     }
 
+    /**
+     * Periodic check of the camera against the portal, run on the main thread while lazy
+     * hydration is enabled.
+     */
+    private static class HydrationCheck implements Runnable {
+        private WeakReference<VRTPortalScene> mPortalScene;
+
+        public HydrationCheck(VRTPortalScene portalScene) {
+            mPortalScene = new WeakReference<VRTPortalScene>(portalScene);
+        }
+
+        @Override
+        public void run() {
+            VRTPortalScene portalScene = mPortalScene.get();
+            if (portalScene == null || portalScene.isTornDown() || !portalScene.mLazyHydration) {
+                return;
+            }
+            portalScene.mHydrationHandler.postDelayed(this, portalScene.updateHydration());
+        }
+    }
+
     protected Node createNodeJni() {
         mPortalScene = new PortalScene();
         mPortalScene.setEntryListener(new PortalDelegate(this));
@@ -72,22 +132,196 @@ public class VRTPortalScene extends VRTNode  {
                  VRTPortal portal = (VRTPortal)child;
                  mPortalScene.setPortalEntrance((Portal)portal.getNodeJni());
              }
+        // New interior content waits for the next hydration step (or for the portal to come
+        // into range) before it loads and appears.
+        boolean deferHydration = mLazyHydration && isInteriorChild(child);
+        if (deferHydration) {
+            ((VRTNode) child).setHydrated(false);
+            mPendingChildren.add(child);
+        }
         super.addView(child, index);
+        if (deferHydration) {
+            updateChildAppearance((VRTComponent) child);
+        }
+    }
+
+    @Override
+    public void removeViewAt(int index) {
+        View child = getChildAt(index);
+        mHydratedChildren.remove(child);
+        mPendingChildren.remove(child);
+        super.removeViewAt(index);
+    }
+
+    @Override
+    public void onTearDown() {
+        mHydrationHandler.removeCallbacks(mHydrationCheck);
+        mHydratedChildren.clear();
+        mPendingChildren.clear();
+        super.onTearDown();
     }
 
     public void setPassable(boolean passable) {
         mPortalScene.setPassable(passable);
     }
 
+    /**
+     * Enables lazy hydration of the portal's interior, or disables it if the map is null. While
+     * the portal is further than hydrateDistance or more than viewAngle degrees off the camera's
+     * forward direction, its interior stays hidden and unloaded (videos and sounds paused).
+     * Dehydration only happens once the portal has been beyond dehydrateDistance (or the view
+     * angle plus a margin) for dehydrateDelay milliseconds, so content doesn't thrash at the
+     * edge of the band.
+     */
+    public void setHydration(ReadableMap hydration) {
+        mHydrationHandler.removeCallbacks(mHydrationCheck);
+        mLazyHydration = hydration != null;
+        if (!mLazyHydration) {
+            // Even if the interior already counts as hydrated, children may be left from the
+            // progressive hydration.
+            mInteriorHydrated = true;
+            hydrateAllChildren();
+            return;
+        }
+
+        mHydrateDistance = hydration.hasKey("hydrateDistance") ?
+                (float) hydration.getDouble("hydrateDistance") : DEFAULT_HYDRATE_DISTANCE;
+        mDehydrateDistance = hydration.hasKey("dehydrateDistance") ?
+                (float) hydration.getDouble("dehydrateDistance") :
+                mHydrateDistance * (1 + DEFAULT_DISTANCE_HYSTERESIS);
+        if (mDehydrateDistance < mHydrateDistance) {
+            throw new IllegalArgumentException("dehydrateDistance must be greater than or equal to hydrateDistance");
+        }
+        mViewAngle = hydration.hasKey("viewAngle") ?
+                (float) hydration.getDouble("viewAngle") : DEFAULT_VIEW_ANGLE;
+        mDehydrateDelayMs = hydration.hasKey("dehydrateDelay") ?
+                (long) hydration.getDouble("dehydrateDelay") : DEFAULT_DEHYDRATE_DELAY_MS;
+
+        // Start out dehydrated; the first check hydrates us right away if we're in range.
+        mOutOfRangeSince = -1;
+        setInteriorHydrated(false);
+        mHydrationHandler.post(mHydrationCheck);
+    }
+
+    /**
+     * Compares the camera with the portal, hydrating or dehydrating the interior as needed, and
+     * returns the delay until the next check.
+     */
+    private long updateHydration() {
+        Renderer renderer = mScene != null ? mScene.getNativeRenderer() : null;
+        Node node = getNodeJni();
+        if (renderer == null || node == null) {
+            return HYDRATION_CHECK_INTERVAL_MS;
+        }
+
+        Vector cameraPosition = renderer.getLastCameraPositionRealtime();
+        Vector cameraForward = renderer.getLastCameraForwardRealtime();
+        Vector portalPosition = node.getWorldTransformRealTime().extractTranslation();
+
+        Vector toPortal = portalPosition.subtract(cameraPosition);
+        float distance = toPortal.magnitude();
+        float angle = 0;
+        if (distance > 0 && cameraForward.magnitude() > 0) {
+            float cos = toPortal.normalize().dot(cameraForward.normalize());
+            angle = (float) Math.toDegrees(Math.acos(Math.max(-1f, Math.min(1f, cos))));
+        }
+
+        if (!mInteriorHydrated) {
+            if (distance <= mHydrateDistance && angle <= mViewAngle) {
+                mOutOfRangeSince = -1;
+                setInteriorHydrated(true);
+            }
+        } else {
+            boolean outOfRange = distance > mDehydrateDistance || angle > mViewAngle + VIEW_ANGLE_HYSTERESIS;
+            if (!outOfRange) {
+                mOutOfRangeSince = -1;
+            } else if (mOutOfRangeSince < 0) {
+                mOutOfRangeSince = SystemClock.uptimeMillis();
+            } else if (SystemClock.uptimeMillis() - mOutOfRangeSince >= mDehydrateDelayMs) {
+                mOutOfRangeSince = -1;
+                setInteriorHydrated(false);
+            }
+        }
+
+        // Bring in the next interior child, if we're still progressively hydrating.
+        if (mInteriorHydrated && hydrateNextChild()) {
+            return PROGRESSIVE_HYDRATION_INTERVAL_MS;
+        }
+        return HYDRATION_CHECK_INTERVAL_MS;
+    }
+
+    private void setInteriorHydrated(boolean hydrated) {
+        if (mInteriorHydrated == hydrated) {
+            return;
+        }
+        mInteriorHydrated = hydrated;
+
+        if (!hydrated) {
+            mHydratedChildren.clear();
+            mPendingChildren.clear();
+            for (int i = 0; i < getChildCount(); i++) {
+                View child = getChildAt(i);
+                if (isInteriorChild(child)) {
+                    ((VRTNode) child).setHydrated(false);
+                    mPendingChildren.add(child);
+                }
+            }
+            handleAppearanceChange();
+        } else {
+            hydrateNextChild();
+        }
+    }
+
+    /**
+     * Hydrates every interior child at once, for when hydration is switched off.
+     */
+    private void hydrateAllChildren() {
+        while (hydrateNextChild()) {
+            // Keep hydrating
+        }
+    }
+
+    /**
+     * Hydrates the next not-yet-hydrated interior child, returning false if there was none.
+     */
+    private boolean hydrateNextChild() {
+        View child = mPendingChildren.poll();
+        if (child == null) {
+            return false;
+        }
+        mHydratedChildren.add(child);
+        ((VRTNode) child).setHydrated(true);
+        updateChildAppearance((VRTComponent) child);
+        return true;
+    }
+
+    /*
+     The portal entrance always stays loaded; everything else is interior content.
+     */
+    private boolean isInteriorChild(View child) {
+        return child instanceof VRTNode && !(child instanceof VRTPortal);
+    }
+
+    @Override
+    protected boolean shouldChildAppear(VRTComponent child) {
+        if (!super.shouldChildAppear(child)) {
+            return false;
+        }
+        if (!isInteriorChild(child)) {
+            return true;
+        }
+        return mInteriorHydrated && (!mLazyHydration || mHydratedChildren.contains(child));
+    }
+
     private void onPortalExit() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_PORTAL_EXIT,
                 null);
     }
 
     private void onPortalEnter() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_PORTAL_ENTER,
                 null);
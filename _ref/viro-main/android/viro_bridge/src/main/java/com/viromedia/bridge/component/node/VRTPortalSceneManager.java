@@ -24,6 +24,7 @@ package com.viromedia.bridge.component.node;
 import androidx.annotation.Nullable;
 
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.annotations.ReactProp;
@@ -49,6 +50,11 @@ public class VRTPortalSceneManager extends VRTNodeManager<VRTPortalScene> {
     @ReactProp(name = "passable")
     public void setPassable(VRTPortalScene view, boolean passable) {view.setPassable(passable); }
 
+    @ReactProp(name = "hydration")
+    public void setHydration(VRTPortalScene view, @Nullable ReadableMap hydration) {
+        view.setHydration(hydration);
+    }
+
     @Override
     public @Nullable
     Map getExportedCustomDirectEventTypeConstants() {
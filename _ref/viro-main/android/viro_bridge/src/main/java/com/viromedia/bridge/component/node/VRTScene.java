@@ -21,6 +21,8 @@
 
 package com.viromedia.bridge.component.node;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 
 import com.facebook.react.bridge.Arguments;
@@ -29,7 +31,6 @@ import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.EventDelegate;
 import com.viro.core.internal.CameraCallback;
 import com.viro.core.Node;
@@ -40,8 +41,15 @@ import com.viro.core.Texture;
 import com.viro.core.Vector;
 import com.viro.core.VideoTexture;
 import com.viro.core.Renderer;
+import com.viromedia.bridge.component.node.control.VRT3DObject;
 import com.viromedia.bridge.utility.Helper;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 public class VRTScene extends VRTNode implements Scene.VisibilityListener {
     private static final String TAG = VRTScene.class.getSimpleName();
@@ -51,6 +59,32 @@ public class VRTScene extends VRTNode implements Scene.VisibilityListener {
     private static final String FLOOR_MATERIAL_KEY = "floorMaterial";
     private static final String DEFAULT_MATERIAL = "transparent";
     private static final float[] DEFAULT_SIZE = {0,0,0};
+    // How often the camera distance of objects with LOD levels is checked against their thresholds.
+    private static final long LOD_CHECK_INTERVAL_MS = 200;
+
+    /**
+     * Periodic check of the camera distance of every object with LOD levels in this scene, run
+     * on the main thread while there are any.
+     */
+    private static class LODCheck implements Runnable {
+        private WeakReference<VRTScene> mScene;
+
+        public LODCheck(VRTScene scene) {
+            mScene = new WeakReference<VRTScene>(scene);
+        }
+
+        @Override
+        public void run() {
+            VRTScene scene = mScene.get();
+            if (scene == null || scene.isTornDown() || scene.mLODObjects.isEmpty()) {
+                return;
+            }
+            for (VRT3DObject object : scene.mLODObjects.toArray(new VRT3DObject[0])) {
+                object.updateLOD();
+            }
+            scene.mLODHandler.postDelayed(this, LOD_CHECK_INTERVAL_MS);
+        }
+    }
 
     protected Scene mNativeScene;
     private Renderer mNativeRenderer;
@@ -65,6 +99,10 @@ public class VRTScene extends VRTNode implements Scene.VisibilityListener {
     private String mHeadset;
     private String mController;
 
+    private final Set<VRT3DObject> mLODObjects = Collections.newSetFromMap(new IdentityHashMap<VRT3DObject, Boolean>());
+    private final Handler mLODHandler = new Handler(Looper.getMainLooper());
+    private final LODCheck mLODCheck = new LODCheck(this);
+
     public VRTScene(ReactContext reactContext) {
         super(reactContext);
         mVisible = true; // Scenes are always visible!
@@ -92,9 +130,23 @@ public class VRTScene extends VRTNode implements Scene.VisibilityListener {
         if (!isTornDown()) {
             mNativeScene.dispose();
         }
+        mLODHandler.removeCallbacks(mLODCheck);
+        mLODObjects.clear();
         super.onTearDown();
     }
 
+    public void addLODObject(VRT3DObject object) {
+        if (mLODObjects.add(object) && mLODObjects.size() == 1) {
+            mLODHandler.postDelayed(mLODCheck, LOD_CHECK_INTERVAL_MS);
+        }
+    }
+
+    public void removeLODObject(VRT3DObject object) {
+        if (mLODObjects.remove(object) && mLODObjects.isEmpty()) {
+            mLODHandler.removeCallbacks(mLODCheck);
+        }
+    }
+
     public Scene getNativeScene() {
         return mNativeScene;
     }
@@ -108,6 +160,10 @@ public class VRTScene extends VRTNode implements Scene.VisibilityListener {
         setCameraIfPossible();
     }
 
+    public Renderer getNativeRenderer() {
+        return mNativeRenderer;
+    }
+
     public void setBackgroundImageTexture(Texture texture) {
         mNativeScene.setBackgroundTexture(texture);
     }
@@ -227,7 +283,7 @@ public class VRTScene extends VRTNode implements Scene.VisibilityListener {
         event.putString("controller", mController);
         WritableMap eventContainer = Arguments.createMap();
         eventContainer.putMap("platformInfoViro", event);
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_PLATFORM_UPDATE,
                 eventContainer);
@@ -0,0 +1,148 @@
+//  Copyright © 2016 Viro Media. All rights reserved.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining
+//  a copy of this software and associated documentation files (the
+//  "Software"), to deal in the Software without restriction, including
+//  without limitation the rights to use, copy, modify, merge, publish,
+//  distribute, sublicense, and/or sell copies of the Software, and to
+//  permit persons to whom the Software is furnished to do so, subject to
+//  the following conditions:
+//
+//  The above copyright notice and this permission notice shall be included
+//  in all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+//  EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+//  MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+//  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+//  CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+//  TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+//  SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.viromedia.bridge.component.node.control;
+
+import com.viro.core.ParticleEmitter;
+import com.viro.core.Quad;
+import com.viro.core.Texture;
+import com.viro.core.ViroContext;
+import com.viromedia.bridge.utility.ParticleTextureCache;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * Keeps idle {@link ParticleEmitter}s around so that effects which are torn down and spawned
+ * again don't rebuild their native emitter and particle quad every time. Emitters are pooled by
+ * configuration: the render context, the particle texture and the particle size. Everything else
+ * (modifiers, spawn behavior, run state) is re-applied by the emitter component on reuse.
+ *
+ * Emitters are only ever created and attached on the UI thread, so this class is not thread safe.
+ */
+public class ParticleEmitterPool {
+    private static final int MAX_IDLE_EMITTERS = 8;
+
+    // Oldest idle emitters are at the head of the list.
+    private static final LinkedList<PooledEmitter> sIdleEmitters = new LinkedList<>();
+
+    /**
+     * Returns an emitter whose particles show the given texture at the given size, reusing an idle
+     * one if possible. The pool takes its own reference on the texture, so callers keep theirs.
+     */
+    static PooledEmitter acquire(ViroContext context, Texture texture, float width, float height) {
+        Iterator<PooledEmitter> iterator = sIdleEmitters.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledEmitter pooled = iterator.next();
+            if (pooled.matches(context, texture, width, height)) {
+                iterator.remove();
+                pooled.mRecycled = true;
+                return pooled;
+            }
+        }
+
+        ParticleTextureCache.retain(texture);
+        Quad quad = new Quad(width, height, 0, 0, 1, 1);
+        quad.setImageTexture(texture);
+        return new PooledEmitter(context, new ParticleEmitter(context, quad), quad, texture,
+                width, height);
+    }
+
+    /**
+     * Stops the given emitter and returns it to the pool. The caller must already have detached it
+     * from its node.
+     */
+    static void recycle(PooledEmitter pooled) {
+        pooled.mEmitter.pause();
+        pooled.mEmitter.resetEmissionCycle();
+        sIdleEmitters.addLast(pooled);
+
+        while (sIdleEmitters.size() > MAX_IDLE_EMITTERS) {
+            sIdleEmitters.removeFirst().dispose();
+        }
+    }
+
+    /**
+     * Disposes an emitter that can't be reused, because it could not be detached from its node.
+     */
+    static void discard(PooledEmitter pooled) {
+        pooled.dispose();
+    }
+
+    /**
+     * Disposes the idle emitters of a render context that is going away. Called once its scenes
+     * have been torn down, so their emitters are already back in the pool.
+     */
+    public static void clear(ViroContext context) {
+        Iterator<PooledEmitter> iterator = sIdleEmitters.iterator();
+        while (iterator.hasNext()) {
+            PooledEmitter pooled = iterator.next();
+            if (pooled.mContext == context) {
+                iterator.remove();
+                pooled.dispose();
+            }
+        }
+    }
+
+    static class PooledEmitter {
+        private final ViroContext mContext;
+        private final ParticleEmitter mEmitter;
+        private final Quad mQuad;
+        private final Texture mTexture;
+        private final float mWidth;
+        private final float mHeight;
+        private boolean mRecycled = false;
+
+        private PooledEmitter(ViroContext context, ParticleEmitter emitter, Quad quad,
+                              Texture texture, float width, float height) {
+            mContext = context;
+            mEmitter = emitter;
+            mQuad = quad;
+            mTexture = texture;
+            mWidth = width;
+            mHeight = height;
+        }
+
+        ParticleEmitter getEmitter() {
+            return mEmitter;
+        }
+
+        /**
+         * True if this emitter came out of the pool rather than being freshly created, in which
+         * case it still carries the previous owner's emission state.
+         */
+        boolean wasRecycled() {
+            return mRecycled;
+        }
+
+        boolean matches(ViroContext context, Texture texture, float width, float height) {
+            return mContext == context && mTexture == texture
+                    && mWidth == width && mHeight == height;
+        }
+
+        private void dispose() {
+            mEmitter.dispose();
+            mQuad.dispose();
+            ParticleTextureCache.release(mTexture);
+        }
+    }
+}
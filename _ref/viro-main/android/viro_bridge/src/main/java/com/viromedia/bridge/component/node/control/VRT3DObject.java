@@ -25,18 +25,22 @@ import android.net.Uri;
 
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.AsyncObject3DListener;
 import com.viro.core.ViroContext;
 import com.viro.core.internal.ExecutableAnimation;
 import com.viro.core.Material;
 import com.viro.core.Node;
 import com.viro.core.Object3D;
+import com.viro.core.Renderer;
+import com.viro.core.Vector;
+import com.viromedia.bridge.component.node.VRTScene;
 import com.viromedia.bridge.utility.ViroEvents;
 import com.viromedia.bridge.utility.Helper;
 import com.viromedia.bridge.utility.ViroLog;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -80,6 +84,28 @@ public class VRT3DObject extends VRTControl {
         }
     }
 
+    /**
+     * An alternative, usually lower detail, model used once the camera is at least mDistance
+     * away. Level 0 is always the object's own source at distance 0.
+     */
+    public static class LODLevel {
+        private final Uri mSource;
+        private final Object3D.Type mType;
+        private final float mDistance;
+        private Object3D mModel;
+        private boolean mLoaded = false;
+
+        public LODLevel(Uri source, Object3D.Type type, float distance) {
+            mSource = source;
+            mType = type;
+            mDistance = distance;
+        }
+    }
+
+    // The camera has to move this fraction past a threshold before the level changes back,
+    // so an object sitting on a threshold doesn't keep swapping models.
+    private static final float LOD_HYSTERESIS = 0.1f;
+
     private Uri mSource;
     private List<Pair<String, Float>> mMorphTargets;
     private List<String> mResources = null;
@@ -87,6 +113,14 @@ public class VRT3DObject extends VRTControl {
     private boolean mSourceChanged = false;
     private Object3D.Type mType;
 
+    private List<LODLevel> mLODSources = new ArrayList<>();
+    private List<LODLevel> mLODLevels = new ArrayList<>();
+    private int mActiveLOD = -1;
+    private int mTargetLOD = -1;
+    private boolean mLODLoadStarted = false;
+    // The scene whose LOD check this object is registered with, while LOD levels are set.
+    private VRTScene mLODScene = null;
+
     public VRT3DObject(ReactContext reactContext) {
         super(reactContext);
         mNodeAnimation = new Object3dAnimation(reactContext, this);
@@ -103,13 +137,31 @@ public class VRT3DObject extends VRTControl {
         if (isTornDown()) {
             return;
         }
+        stopLODChecks();
+        releaseLODLevels();
         super.onTearDown();
     }
 
+    @Override
+    public void setScene(VRTScene scene) {
+        stopLODChecks();
+        super.setScene(scene);
+        if (!mLODLevels.isEmpty() && !isTornDown()) {
+            startLODChecks();
+        }
+    }
+
     private Object3D getObject3D() {
         return (Object3D) getNodeJni();
     }
 
+    /**
+     * The model currently shown: the active LOD level's model when LOD levels are set.
+     */
+    private Object3D getActiveModel() {
+        return mActiveLOD >= 0 ? mLODLevels.get(mActiveLOD).mModel : getObject3D();
+    }
+
     public void setType(String type) {
         if (type == null || type.isEmpty()) {
             throw new IllegalArgumentException("Missing required prop [type] for Viro3DObject");
@@ -135,13 +187,22 @@ public class VRT3DObject extends VRTControl {
         mResources = resources;
     }
 
+    /**
+     * Sets the lower detail alternatives for this object's source, ordered by increasing
+     * distance. An empty list turns LOD switching off.
+     */
+    public void setLODLevels(List<LODLevel> levels) {
+        mLODSources = levels != null ? levels : new ArrayList<LODLevel>();
+        mSourceChanged = true;
+    }
+
     public void setMorphTargets(List<Pair<String, Float>> targets) {
         mMorphTargets = targets;
         if (!mObjLoaded || mMorphTargets == null) {
             return;
         }
 
-        Object3D model = getObject3D();
+        Object3D model = getActiveModel();
         Set<String> keys = model.getMorphTargetKeys();
         for (Pair<String, Float> target : targets) {
             if (!keys.contains(target.first)) {
@@ -159,6 +220,17 @@ public class VRT3DObject extends VRTControl {
             super.setMaterials(materials);
         }
         mMaterials = materials;
+        for (LODLevel level : mLODLevels) {
+            if (level.mLoaded) {
+                applyMaterials(level.mModel);
+            }
+        }
+    }
+
+    private void applyMaterials(Object3D model) {
+        if (mMaterials != null && model.getGeometry() != null) {
+            bindMaterials(model.getGeometry(), mMaterials);
+        }
     }
 
     @Override
@@ -167,9 +239,44 @@ public class VRT3DObject extends VRTControl {
         onPropsSet();
     }
 
+    @Override
+    public void setHydrated(boolean hydrated) {
+        if (mHydrated == hydrated) {
+            return;
+        }
+        super.setHydrated(hydrated);
+        if (isTornDown()) {
+            return;
+        }
+
+        if (hydrated) {
+            // Load the model we deferred (or released) while dehydrated.
+            onPropsSet();
+        } else {
+            unloadModel();
+        }
+    }
+
+    /**
+     * Releases the loaded model so that it is loaded again from mSource on the next onPropsSet.
+     */
+    private void unloadModel() {
+        if (mSource == null) {
+            return;
+        }
+        stopLODChecks();
+        releaseLODLevels();
+        if (getNodeJni() != null) {
+            getObject3D().disposeModel();
+        }
+        mObjLoaded = false;
+        mSourceChanged = true;
+    }
+
     @Override
     protected void onPropsSet() {
-        if (mViroContext == null || mSource == null || !mSourceChanged) {
+        // While dehydrated the source is only recorded; it's loaded once we're hydrated.
+        if (mViroContext == null || mSource == null || !mSourceChanged || !mHydrated) {
             return;
         }
 
@@ -184,6 +291,22 @@ public class VRT3DObject extends VRTControl {
             nodeJni.removeAllChildNodes();
         }
 
+        stopLODChecks();
+        releaseLODLevels();
+        if (!mLODSources.isEmpty()) {
+            // With LOD levels, each level is loaded into its own child model as the camera
+            // distance calls for it, starting with the first distance check. The levels parsed
+            // from props are copied, since load state is kept on the levels.
+            mLODLevels.add(new LODLevel(mSource, mType, 0));
+            for (LODLevel source : mLODSources) {
+                mLODLevels.add(new LODLevel(source.mSource, source.mType, source.mDistance));
+            }
+            mLODLoadStarted = false;
+            mSourceChanged = false;
+            startLODChecks();
+            return;
+        }
+
         loadDidStart();
 
         final WeakReference<VRT3DObject> weakVRTRef = new WeakReference<VRT3DObject>(this);
@@ -199,6 +322,12 @@ public class VRT3DObject extends VRTControl {
                     return;
                 }
 
+                // We were dehydrated while loading: drop the model until we're hydrated again.
+                if (!vrt3DObject.mHydrated) {
+                    vrt3DObject.unloadModel();
+                    return;
+                }
+
                 vrt3DObject.mObjLoaded = true;
                 if (mMaterials != null) {
                     // set materials on the node after it's finished loading
@@ -230,14 +359,7 @@ public class VRT3DObject extends VRTControl {
         // if the source is from resources, then pass in the resources it depends on (if any)
         String scheme = mSource.getScheme();
         if (scheme != null && scheme.equals("res")) {
-            Map<String, String> resourceMap = null;
-            if (mResources != null) {
-                resourceMap = new HashMap<>();
-                for (String resource : mResources) {
-                    Uri uri = Helper.parseUri(resource, getContext());
-                    resourceMap.put(resource, uri.toString());
-                }
-            }
+            Map<String, String> resourceMap = getResourceMap();
 
             // When in release mode, the objects are packaged as resources so we use the
             // resource constructor
@@ -250,8 +372,200 @@ public class VRT3DObject extends VRTControl {
         mSourceChanged = false;
     }
 
+    /**
+     * Registers with the scene's LOD check, which updates every object with LOD levels in one
+     * periodic pass, and picks the first level right away.
+     */
+    private void startLODChecks() {
+        if (mScene == null) {
+            return;
+        }
+        mLODScene = mScene;
+        mLODScene.addLODObject(this);
+        updateLOD();
+    }
+
+    private void stopLODChecks() {
+        if (mLODScene != null) {
+            mLODScene.removeLODObject(this);
+            mLODScene = null;
+        }
+    }
+
+    /**
+     * Picks the LOD level for the current camera distance, loading it if needed and showing it
+     * once loaded. The levels adjacent to the active one are preloaded, and the rest released.
+     * Invoked by the scene's LOD check.
+     */
+    public void updateLOD() {
+        if (isTornDown() || mLODLevels.isEmpty() || !mHydrated || mViroContext == null || mScene == null) {
+            return;
+        }
+        Renderer renderer = mScene.getNativeRenderer();
+        if (renderer == null) {
+            return;
+        }
+
+        Vector position = getNodeJni().getWorldTransformRealTime().extractTranslation();
+        float distance = position.distance(renderer.getLastCameraPositionRealtime());
+
+        int target;
+        if (mActiveLOD < 0) {
+            target = getLODForDistance(distance);
+        } else {
+            target = mActiveLOD;
+            int coarser = getLODForDistance(distance / (1 + LOD_HYSTERESIS));
+            int finer = getLODForDistance(distance / (1 - LOD_HYSTERESIS));
+            if (coarser > mActiveLOD) {
+                target = coarser;
+            } else if (finer < mActiveLOD) {
+                target = finer;
+            }
+        }
+
+        if (target == mTargetLOD) {
+            return;
+        }
+        mTargetLOD = target;
+        LODLevel level = mLODLevels.get(target);
+        if (level.mLoaded) {
+            showLOD(target);
+        } else {
+            loadLOD(target);
+        }
+    }
+
+    private int getLODForDistance(float distance) {
+        int index = 0;
+        for (int i = 1; i < mLODLevels.size(); i++) {
+            if (distance >= mLODLevels.get(i).mDistance) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private void showLOD(int index) {
+        if (mActiveLOD >= 0 && mActiveLOD != index) {
+            mLODLevels.get(mActiveLOD).mModel.setVisible(false);
+        }
+        mActiveLOD = index;
+        mLODLevels.get(index).mModel.setVisible(true);
+        // Morph targets set so far apply to whichever level is shown
+        mObjLoaded = true;
+        setMorphTargets(mMorphTargets);
+
+        for (int i = 0; i < mLODLevels.size(); i++) {
+            if (Math.abs(i - index) > 1) {
+                releaseLOD(mLODLevels.get(i));
+            }
+        }
+        if (index > 0) {
+            loadLOD(index - 1);
+        }
+        if (index < mLODLevels.size() - 1) {
+            loadLOD(index + 1);
+        }
+    }
+
+    private void loadLOD(final int index) {
+        final LODLevel level = mLODLevels.get(index);
+        if (level.mModel != null) {
+            return;
+        }
+
+        if (!mLODLoadStarted) {
+            mLODLoadStarted = true;
+            loadDidStart();
+        }
+
+        final Object3D model = new Object3D();
+        model.setVisible(false);
+        level.mModel = model;
+        getNodeJni().addChildNode(model);
+
+        final WeakReference<VRT3DObject> weakVRTRef = new WeakReference<VRT3DObject>(this);
+        AsyncObject3DListener listener = new AsyncObject3DListener() {
+            @Override
+            public void onObject3DLoaded(Object3D object, Object3D.Type type) {
+                VRT3DObject vrt3DObject = weakVRTRef.get();
+                // Ignore the load if this level was released in the meantime.
+                if (vrt3DObject == null || vrt3DObject.isTornDown() || level.mModel != model) {
+                    return;
+                }
+
+                level.mLoaded = true;
+                vrt3DObject.applyMaterials(model);
+                model.setLightReceivingBitMask(mLightReceivingBitMask);
+                model.setShadowCastingBitMask(mShadowCastingBitMask);
+                model.setIgnoreEventHandling(mIgnoreEventHandling);
+
+                if (vrt3DObject.mTargetLOD == index) {
+                    boolean firstLoad = vrt3DObject.mActiveLOD < 0;
+                    vrt3DObject.showLOD(index);
+                    if (firstLoad) {
+                        vrt3DObject.updateAnimation();
+                        vrt3DObject.loadDidEnd();
+                    }
+                }
+            }
+
+            @Override
+            public void onObject3DFailed(String error) {
+                VRT3DObject vrt3DObject = weakVRTRef.get();
+                if (vrt3DObject != null && !vrt3DObject.isTornDown()) {
+                    onError(error);
+                }
+            }
+        };
+
+        String scheme = level.mSource.getScheme();
+        if (scheme != null && scheme.equals("res")) {
+            // Only the primary source comes with a list of dependent resources.
+            Map<String, String> resourceMap = index == 0 ? getResourceMap() : null;
+            model.loadModel(mViroContext, level.mSource.toString(), level.mType, listener, resourceMap);
+        } else {
+            model.loadModel(mViroContext, level.mSource, level.mType, listener);
+        }
+    }
+
+    private void releaseLOD(LODLevel level) {
+        if (level.mModel == null) {
+            return;
+        }
+        level.mModel.disposeModel();
+        level.mModel.removeFromParentNode();
+        level.mModel.dispose();
+        level.mModel = null;
+        level.mLoaded = false;
+    }
+
+    private void releaseLODLevels() {
+        if (!mLODLevels.isEmpty()) {
+            mObjLoaded = false;
+        }
+        for (LODLevel level : mLODLevels) {
+            releaseLOD(level);
+        }
+        mLODLevels.clear();
+        mActiveLOD = -1;
+        mTargetLOD = -1;
+    }
+
+    private Map<String, String> getResourceMap() {
+        Map<String, String> resourceMap = null;
+        if (mResources != null) {
+            resourceMap = new HashMap<>();
+            for (String resource : mResources) {
+                Uri uri = Helper.parseUri(resource, getContext());
+                resourceMap.put(resource, uri.toString());
+            }
+        }
+        return resourceMap;
+    }
+
     private void loadDidStart() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_LOAD_START,
                 null
@@ -259,7 +573,7 @@ public class VRT3DObject extends VRTControl {
     }
 
     public void loadDidEnd() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_LOAD_END,
                 null
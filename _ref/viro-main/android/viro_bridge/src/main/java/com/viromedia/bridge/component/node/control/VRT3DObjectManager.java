@@ -21,6 +21,7 @@
 
 package com.viromedia.bridge.component.node.control;
 
+import android.net.Uri;
 import android.util.Pair;
 import androidx.annotation.Nullable;
 
@@ -30,7 +31,9 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.annotations.ReactProp;
+import com.viro.core.Object3D;
 import com.viromedia.bridge.component.node.VRTNodeManager;
+import com.viromedia.bridge.utility.Helper;
 import com.viromedia.bridge.utility.ViroEvents;
 
 
@@ -104,6 +107,34 @@ public class VRT3DObjectManager extends VRTControlManager<VRT3DObject> {
         object3d.setMorphTargets(targetList);
     }
 
+    @ReactProp(name = "lods")
+    public void setLODs(VRT3DObject object3d, @Nullable ReadableArray lods) {
+        List<VRT3DObject.LODLevel> levels = new ArrayList<>();
+        if (lods != null) {
+            float lastDistance = 0;
+            for (int i = 0; i < lods.size(); i++) {
+                ReadableMap lodMap = lods.getMap(i);
+                if (!lodMap.hasKey("source") || !lodMap.getMap("source").hasKey(URI_KEY)) {
+                    throw new IllegalArgumentException("Unable to find \"uri\" key in given LOD source map.");
+                }
+                if (!lodMap.hasKey("type") || !lodMap.hasKey("distance")) {
+                    throw new IllegalArgumentException("Each LOD requires a type and a distance.");
+                }
+
+                float distance = (float) lodMap.getDouble("distance");
+                if (distance <= lastDistance) {
+                    throw new IllegalArgumentException("LOD distances must be positive and increasing.");
+                }
+                lastDistance = distance;
+
+                Uri source = Helper.parseUri(lodMap.getMap("source").getString(URI_KEY), object3d.getContext());
+                levels.add(new VRT3DObject.LODLevel(source,
+                        Object3D.Type.fromString(lodMap.getString("type")), distance));
+            }
+        }
+        object3d.setLODLevels(levels);
+    }
+
     @ReactProp(name = "type")
     public void setType(VRT3DObject object3d, @Nullable String type) {
         object3d.setType(type);
@@ -86,7 +86,8 @@ public class VRTAnimatedImage extends VRTImage {
         mIsTopMostChangedElement = true;
         setChildrenNotTopMostChangedElement();
 
-        if (isTornDown()) {
+        // While dehydrated props are only recorded; the texture is created on hydration.
+        if (isTornDown() || !mHydrated) {
             return;
         }
 
@@ -145,11 +146,28 @@ public class VRTAnimatedImage extends VRTImage {
     public void setViroContext(ViroContext context) {
         super.setViroContext(context);
 
-        if (mPendingTextureLoad) {
+        if (mPendingTextureLoad && mHydrated) {
             downloadSourceImage(null);
         }
     }
 
+    @Override
+    public void setHydrated(boolean hydrated) {
+        if (!hydrated && mHydrated && !isTornDown()) {
+            // The image releases the texture itself; drop the loads that would hand it a new one.
+            if (mMainAnimatedTextureDownloadListener != null) {
+                mMainAnimatedTextureDownloadListener.invalidate();
+                mMainAnimatedTextureDownloadListener = null;
+            }
+            if (mAnimatedImagePlaceholderListener != null) {
+                mAnimatedImagePlaceholderListener.invalidate();
+                mAnimatedImagePlaceholderListener = null;
+            }
+            mPendingTextureLoad = false;
+        }
+        super.setHydrated(hydrated);
+    }
+
     @Override
     public void onTearDown() {
         if (isTornDown()) {
@@ -28,7 +28,6 @@ import android.os.Looper;
 
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.internal.Image;
 import com.viro.core.Material;
 import com.viro.core.Quad;
@@ -37,6 +36,7 @@ import com.viromedia.bridge.utility.ImageDownloadListener;
 import com.viromedia.bridge.utility.ImageDownloader;
 import com.viromedia.bridge.utility.ViroEvents;
 import com.viromedia.bridge.utility.ViroLog;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 import java.util.List;
 
@@ -148,7 +148,8 @@ public class VRTImage extends VRTControl {
     @Override
     public void onPropsSet() {
         super.onPropsSet();
-        if (isTornDown()) {
+        // While dehydrated props are only recorded; the quad and image are built on hydration.
+        if (isTornDown() || !mHydrated) {
             return;
         }
 
@@ -218,6 +219,47 @@ public class VRTImage extends VRTControl {
         }
     }
 
+    @Override
+    public void setHydrated(boolean hydrated) {
+        if (mHydrated == hydrated) {
+            return;
+        }
+        super.setHydrated(hydrated);
+        if (isTornDown()) {
+            return;
+        }
+
+        if (hydrated) {
+            onPropsSet();
+            return;
+        }
+
+        // Release the quad and its texture; the image is fetched again (usually from the
+        // image pipeline's cache) when we're hydrated.
+        if (mPlaceholderListener != null) {
+            mPlaceholderListener.invalidate();
+            mPlaceholderListener = null;
+        }
+        if (mMainListener != null) {
+            mMainListener.invalidate();
+            mMainListener = null;
+        }
+        if (mNativeQuad != null) {
+            getNodeJni().setGeometry(null);
+            mNativeQuad.dispose();
+            mNativeQuad = null;
+        }
+        if (mLatestImage != null) {
+            mLatestImage.destroy();
+            mLatestImage = null;
+        }
+        if (mLatestImageTexture != null) {
+            mLatestImageTexture.dispose();
+            mLatestImageTexture = null;
+        }
+        mImageNeedsDownload = mSourceMap != null;
+    }
+
     @Override
     public void onTearDown() {
         if (isTornDown()) {
@@ -286,7 +328,7 @@ public class VRTImage extends VRTControl {
     }
 
     void imageDownloadDidStart() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_LOAD_START,
                 null
@@ -294,7 +336,7 @@ public class VRTImage extends VRTControl {
     }
 
     void imageDownloadDidFinish() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_LOAD_END,
                 null
@@ -21,7 +21,6 @@
 
 package com.viromedia.bridge.component.node.control;
 
-import android.graphics.Bitmap;
 import android.graphics.Color;
 import android.os.Handler;
 import android.os.Looper;
@@ -29,17 +28,14 @@ import android.os.Looper;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
-import com.viro.core.internal.Image;
 import com.viro.core.Material;
 import com.viro.core.Node;
 import com.viro.core.ParticleEmitter;
 import com.viro.core.Vector;
 import com.viro.core.ViroContext;
-import com.viro.core.Quad;
 import com.viro.core.Texture;
 import com.viromedia.bridge.component.node.VRTScene;
-import com.viromedia.bridge.utility.ImageDownloadListener;
-import com.viromedia.bridge.utility.ImageDownloader;
+import com.viromedia.bridge.utility.ParticleTextureCache;
 
 import java.util.ArrayList;
 
@@ -60,12 +56,9 @@ public class VRTParticleEmitter extends VRTControl {
     private float mDelay = DEFAULT_DELAY;
     private float mDuration = DEFAULT_DURATION;
 
-    // Native components representing this emitter, and it's particle geometry.
+    // Native emitter (and it's particle geometry) borrowed from the shared pool.
+    private ParticleEmitterPool.PooledEmitter mPooledEmitter = null;
     private ParticleEmitter mNativeEmitter = null;
-    private Quad mNativeQuad = null;
-
-    // True if the image source, or it's configuration has changed.
-    private boolean mImageNeedsUpdate = false;
 
     // True if changes made to this emitter's properties requires a restart.
     private boolean mEmitterNeedsRestart = false;
@@ -73,12 +66,11 @@ public class VRTParticleEmitter extends VRTControl {
     // Components tracking the loaded image for particles in this emitter.
     private ReadableMap mImage = null;
     private String mCurrentImageUri = null;
-    private Image mLatestImage;
     private Texture mLatestTexture;
 
-    // Components that download the particle's image.
+    // Components that fetch the particle's texture from the shared cache.
     private Handler mMainHandler;
-    private ImageParticleDownloadListener mImageDownloadListener = null;
+    private ParticleTextureListener mTextureListener = null;
 
     // Particle Emitter Modifiers
     private ReadableMap mSpawnBehavior = null;
@@ -102,40 +94,71 @@ public class VRTParticleEmitter extends VRTControl {
         mDefaultVelocity = new ParticleEmitter.ParticleModifierFloatArray(new float[]{-0.5f, 1, 0}, new float[]{0.5f, 1, 0});
         mDefaultAccelerationMod = new ParticleEmitter.ParticleModifierFloatArray(new float[]{0, 0, 0});
         mMainHandler = new Handler(Looper.getMainLooper());
-        mNativeQuad = new Quad(1,1, 0, 0, 1, 1);
     }
 
     @Override
     public void onTearDown(){
-        if (mScene != null && !mScene.isTornDown() && mNativeEmitter != null && getNodeJni() != null) {
-            getNodeJni().removeParticleEmitter();
-        }
+        recycleEmitter();
 
-        if (mNativeEmitter != null){
-            mNativeEmitter.dispose();
-            mNativeEmitter = null;
+        if (mTextureListener != null){
+            mTextureListener.invalidate();
+            mTextureListener = null;
         }
 
-        if (mNativeQuad != null){
-            mNativeQuad.dispose();
-            mNativeQuad = null;
-        }
+        super.onTearDown();
 
-        if (mImageDownloadListener != null){
-            mImageDownloadListener.invalidate();
+        if (mLatestTexture != null) {
+            ParticleTextureCache.release(mLatestTexture);
+            mLatestTexture = null;
         }
+    }
 
-        super.onTearDown();
+    @Override
+    public void setHydrated(boolean hydrated) {
+        if (mHydrated == hydrated) {
+            return;
+        }
+        super.setHydrated(hydrated);
+        if (isTornDown()) {
+            return;
+        }
 
-        if (mLatestImage != null) {
-            mLatestImage.destroy();
-            mLatestImage = null;
+        if (hydrated) {
+            onPropsSet();
+            return;
         }
 
+        // Give the emitter and its texture back; both are fetched again, usually from the pool
+        // and the texture cache, once we're hydrated.
+        recycleEmitter();
+        if (mTextureListener != null) {
+            mTextureListener.invalidate();
+            mTextureListener = null;
+        }
         if (mLatestTexture != null) {
-            mLatestTexture.dispose();
+            ParticleTextureCache.release(mLatestTexture);
             mLatestTexture = null;
         }
+        mCurrentImageUri = null;
+    }
+
+    /*
+     Detaches the native emitter from this node and hands it back to the pool for reuse. Once the
+     scene is torn down the emitter can't be detached anymore, so it is disposed instead.
+     */
+    private void recycleEmitter() {
+        if (mPooledEmitter == null) {
+            return;
+        }
+
+        if (mScene != null && !mScene.isTornDown() && getNodeJni() != null) {
+            getNodeJni().removeParticleEmitter();
+            ParticleEmitterPool.recycle(mPooledEmitter);
+        } else {
+            ParticleEmitterPool.discard(mPooledEmitter);
+        }
+        mPooledEmitter = null;
+        mNativeEmitter = null;
     }
 
     /*
@@ -161,7 +184,6 @@ public class VRTParticleEmitter extends VRTControl {
 
     public void setImage(ReadableMap image) {
         mImage = image;
-        mImageNeedsUpdate = true;
     }
 
     public void setFixedToEmitter(boolean fixedToEmitter){
@@ -209,7 +231,8 @@ public class VRTParticleEmitter extends VRTControl {
     @Override
     public void onPropsSet() {
         super.onPropsSet();
-        if (isTornDown()) {
+        // While dehydrated the props are only recorded; the emitter is set up on hydration.
+        if (isTornDown() || !mHydrated) {
             return;
         }
 
@@ -231,13 +254,24 @@ public class VRTParticleEmitter extends VRTControl {
             return;
         }
 
-        // Refresh the images set on the quad particles if needed.
-        setImageOnParticle();
+        // Swap to a pooled emitter configured for the current image if it has changed.
+        float width = (float) (mImage.hasKey("width") ? mImage.getDouble("width") : 1.0);
+        float height = (float) (mImage.hasKey("height") ? mImage.getDouble("height") : 1.0);
+        if (mPooledEmitter != null
+                && !mPooledEmitter.matches(mViroContext, mLatestTexture, width, height)) {
+            recycleEmitter();
+        }
 
-        // Create emitter if we haven't yet done so.
+        // Grab an emitter from the pool if we haven't yet done so.
         if (mNativeEmitter == null) {
-            mNativeEmitter = new ParticleEmitter(mViroContext, mNativeQuad);
+            mPooledEmitter = ParticleEmitterPool.acquire(mViroContext, mLatestTexture, width, height);
+            mNativeEmitter = mPooledEmitter.getEmitter();
             node.setParticleEmitter(mNativeEmitter);
+
+            // A reused emitter must not carry over the previous owner's emission cycle.
+            if (mPooledEmitter.wasRecycled()) {
+                mEmitterNeedsRestart = true;
+            }
         }
 
         // Update modifiers.
@@ -267,51 +301,30 @@ public class VRTParticleEmitter extends VRTControl {
 
         mCurrentImageUri = imageUri;
 
-        final ImageDownloader downloader = new ImageDownloader(getContext());
-        if (mCurrentImageUri != null){
-            mImageDownloadListener = new ImageParticleDownloadListener();
-            downloader.getImageAsync(imageMap, mImageDownloadListener);
-        } else {
-            mImageDownloadListener.invalidate();
-            mImageDownloadListener = null;
-        }
-    }
-
-    private void setImageOnParticle(){
-        if (!mImageNeedsUpdate) {
-            return;
+        if (mTextureListener != null) {
+            mTextureListener.invalidate();
+            mTextureListener = null;
         }
 
-        double width = (mImage != null && mImage.hasKey("width")) ? mImage.getDouble("width") : 1.0;
-        double height = (mImage != null && mImage.hasKey("height")) ? mImage.getDouble("height") : 1.0;
-        mNativeQuad.setWidth((float)width);
-        mNativeQuad.setHeight((float)height);
-        if (mLatestTexture != null){
-            mNativeQuad.setImageTexture(mLatestTexture);
+        if (mCurrentImageUri != null){
+            mTextureListener = new ParticleTextureListener();
+            ParticleTextureCache.loadAsync(getContext(), imageMap, Texture.Format.RGBA8, mTextureListener);
         }
-
-        mImageNeedsUpdate = false;
     }
 
-    private void imageDownloadDidFinish(Bitmap result) {
+    private void textureLoadDidFinish(Texture texture) {
         if (isTornDown()){
+            ParticleTextureCache.release(texture);
             return;
         }
 
-        if (mLatestImage != null) {
-            mLatestImage.destroy();
-        }
-
         if (mLatestTexture != null) {
-            mLatestTexture.dispose();
+            ParticleTextureCache.release(mLatestTexture);
         }
 
-        mImageNeedsUpdate = true;
-        mLatestImage = new Image(result, Texture.Format.RGBA8);
-        mLatestTexture = new Texture(mLatestImage, true, false, null);
+        mLatestTexture = texture;
 
-        mImageDownloadListener.invalidate();
-        mImageDownloadListener = null;
+        mTextureListener = null;
         onPropsSet();
     }
 
@@ -719,7 +732,7 @@ public class VRTParticleEmitter extends VRTControl {
         return new float[]{0,0,0};
     }
 
-    private class ImageParticleDownloadListener implements ImageDownloadListener {
+    private class ParticleTextureListener implements ParticleTextureCache.Listener {
         private boolean mIsValid = true;
 
         public void invalidate() {
@@ -732,13 +745,14 @@ public class VRTParticleEmitter extends VRTControl {
         }
 
         @Override
-        public void completed(final Bitmap result) {
+        public void completed(final Texture texture) {
             mMainHandler.post(new Runnable() {
                 public void run() {
                     if (!isValid()) {
+                        ParticleTextureCache.release(texture);
                         return;
                     }
-                    imageDownloadDidFinish(result);
+                    textureLoadDidFinish(texture);
                 }
             });
         }
@@ -751,4 +765,4 @@ public class VRTParticleEmitter extends VRTControl {
             onError(error);
         }
     }
-}
\ No newline at end of file
+}
@@ -26,7 +26,6 @@ import android.net.Uri;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.Material;
 import com.viro.core.Texture;
 import com.viro.core.ViroContext;
@@ -34,6 +33,7 @@ import com.viro.core.Quad;
 import com.viro.core.VideoTexture;
 import com.viromedia.bridge.utility.Helper;
 import com.viromedia.bridge.utility.ViroEvents;
+import com.viromedia.bridge.utility.ViroTelemetry;
 
 import java.lang.ref.WeakReference;
 import java.util.List;
@@ -118,6 +118,32 @@ public class VRTVideoSurface extends VRTControl {
 
     @Override
     public void onTearDown(){
+        releaseVideo();
+        super.onTearDown();
+    }
+
+    @Override
+    public void setHydrated(boolean hydrated) {
+        if (mHydrated == hydrated) {
+            return;
+        }
+        super.setHydrated(hydrated);
+        if (isTornDown()) {
+            return;
+        }
+
+        // The player and its texture are created again, from mSource, once we're hydrated.
+        if (hydrated) {
+            resetVideo();
+        } else {
+            if (getNodeJni() != null) {
+                getNodeJni().setGeometry(null);
+            }
+            releaseVideo();
+        }
+    }
+
+    private void releaseVideo() {
         if (mQuad != null) {
             mQuad.dispose();
             mQuad = null;
@@ -126,23 +152,15 @@ public class VRTVideoSurface extends VRTControl {
             mVideoTexture.dispose();
             mVideoTexture = null;
         }
-        super.onTearDown();
     }
 
     private void resetVideo() {
-        if (mViroContext == null || mSource == null) {
+        // While dehydrated the source is only recorded; the video is created on hydration.
+        if (mViroContext == null || mSource == null || !mHydrated) {
             return;
         }
 
-        if (mVideoTexture != null) {
-            mVideoTexture.dispose();
-            mVideoTexture = null;
-        }
-
-        if (mQuad != null) {
-            mQuad.dispose();
-            mQuad = null;
-        }
+        releaseVideo();
 
         // Create Texture
         mQuad = new Quad(mWidth, mHeight, 0, 0, 1, 1);
@@ -255,21 +273,21 @@ public class VRTVideoSurface extends VRTControl {
     }
 
     private void playerBufferStart() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_BUFFER_START,
                 null);
     }
 
     private void playerBufferEnd() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_BUFFER_END,
                 null);
     }
 
     private void playerDidFinishPlaying() {
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_FINISH,
                 null);
@@ -280,7 +298,7 @@ public class VRTVideoSurface extends VRTControl {
         event.putDouble("currentTime", (double) currentTime);
         event.putDouble("totalTime", (double) totalTime);
 
-        mReactContext.getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(mReactContext,
                 getId(),
                 ViroEvents.ON_UPDATE_TIME,
                 event);
@@ -33,6 +33,7 @@ import android.os.Environment;
 import androidx.core.content.ContextCompat;
 import android.util.Log;
 import android.view.PixelCopy;
+import android.view.SurfaceView;
 import android.view.View;
 
 import com.facebook.react.ReactActivity;
@@ -48,6 +49,7 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableType;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
 import com.facebook.react.modules.core.PermissionListener;
 import com.facebook.react.uimanager.IllegalViewOperationException;
 import com.facebook.react.bridge.UIManager;
@@ -59,11 +61,14 @@ import com.viro.core.ViroMediaRecorder;
 import com.viro.core.ViroMediaRecorder.Error;
 import com.viro.core.ViroViewARCore;
 import com.viromedia.bridge.component.VRTARSceneNavigator;
+import com.viromedia.bridge.utility.ARVideoRecorder;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 @ReactModule(name = "VRTARSceneNavigatorModule")
 public class ARSceneNavigatorModule extends ReactContextBaseJavaModule {
@@ -71,10 +76,17 @@ public class ARSceneNavigatorModule extends ReactContextBaseJavaModule {
     private static final String RECORDING_SUCCESS_KEY = "success";
     private static final String RECORDING_URL_KEY = "url";
     private static final String RECORDING_ERROR_KEY = "errorCode";
+    private static final String RECORDING_DROPPED_FRAMES_KEY = "droppedFrames";
+    private static final String RECORDING_ENCODED_FRAMES_KEY = "encodedFrames";
+    private static final String RECORDING_SEGMENTS_KEY = "segments";
+    private static final String SEGMENT_READY_EVENT = "ViroARVideoSegmentReady";
     private static final int PERMISSION_REQ_CODE_AUDIO = 1;
     private static final int PERMISSION_REQ_CODE_STORAGE = 2;
 
     private ReactApplicationContext mContext;
+    // Recordings started with options, by scene navigator tag. Only accessed on the UI thread.
+    private final Map<Integer, ARVideoRecorder> mRecorders = new HashMap<>();
+    private final Map<Integer, Boolean> mRecordersSaveToCameraRoll = new HashMap<>();
     // https://stackoverflow.com/a/44879687
     @Override
     public boolean canOverrideExistingModule() {
@@ -134,6 +146,99 @@ public class ARSceneNavigatorModule extends ReactContextBaseJavaModule {
         });
     }
 
+    /**
+     * Starts recording with the given encoder options instead of ViroMediaRecorder's fixed ones:
+     * resolutionScale, bitrate, fps, keyframeInterval (in seconds) and codec ("h264" or "hevc").
+     * The result of stopVideoRecording then also has the encoded and dropped frame counts.
+     *
+     * With a segmentDuration (in seconds), MP4 segments are written while recording and a
+     * ViroARVideoSegmentReady event is emitted for each; the recording file is then an ffconcat
+     * manifest of the segments.
+     */
+    @ReactMethod
+    public void startVideoRecordingWithOptions(final int sceneNavTag, final String fileName,
+                                               final boolean saveToCameraRoll, final ReadableMap options,
+                                               final Callback reactErrorDelegate) {
+        UIManager uiManager = UIManagerHelper.getUIManager(getReactApplicationContext(), sceneNavTag);
+        if (uiManager == null) {
+            reactErrorDelegate.invoke(UNSUPPORTED_PLATFORM_ERROR);
+            return;
+        }
+        ((FabricUIManager) uiManager).addUIBlock(new com.facebook.react.fabric.interop.UIBlock() {
+            @Override
+            public void execute(com.facebook.react.fabric.interop.UIBlockViewResolver viewResolver) {
+                View sceneView = viewResolver.resolveView(sceneNavTag);
+                if (!(sceneView instanceof VRTARSceneNavigator)) {
+                    throw new IllegalViewOperationException("Viro: Attempted to call startVideoRecordingWithOptions on a non-ARSceneNav view!");
+                }
+                VRTARSceneNavigator scene = (VRTARSceneNavigator) sceneView;
+                ViroViewARCore arView = scene.getARView();
+                final SurfaceView surfaceView = arView != null ? ARVideoRecorder.findSurfaceView(arView) : null;
+                if (surfaceView == null) {
+                    reactErrorDelegate.invoke(UNSUPPORTED_PLATFORM_ERROR);
+                    return;
+                }
+                if (mRecorders.containsKey(sceneNavTag)) {
+                    reactErrorDelegate.invoke(Error.ALREADY_RUNNING.toInt());
+                    return;
+                }
+                String directory = getMediaStorageDirectory(mContext, saveToCameraRoll);
+                if (directory == null) {
+                    reactErrorDelegate.invoke(Error.WRITE_TO_FILE.toInt());
+                    return;
+                }
+                new File(directory).mkdirs();
+                final ARVideoRecorder.Options recorderOptions = ARVideoRecorder.Options.fromMap(options);
+                final String path = directory + "/" + fileName
+                        + (recorderOptions.isSegmented() ? ".ffconcat" : ".mp4");
+
+                checkPermissionsAndRun(new PermissionListener() {
+                    @Override
+                    public boolean onRequestPermissionsResult(int requestCode, String[] permissions, int[] grantResults) {
+                        final ARVideoRecorder recorder = new ARVideoRecorder(mContext, surfaceView, path, recorderOptions);
+                        if (recorderOptions.isSegmented()) {
+                            recorder.setSegmentListener(new ARVideoRecorder.SegmentListener() {
+                                @Override
+                                public void onSegmentReady(String segmentPath, int index, double duration) {
+                                    WritableMap event = Arguments.createMap();
+                                    event.putInt("reactTag", sceneNavTag);
+                                    event.putString(RECORDING_URL_KEY, segmentPath);
+                                    event.putInt("index", index);
+                                    event.putDouble("duration", duration);
+                                    mContext.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                                            .emit(SEGMENT_READY_EVENT, event);
+                                }
+                            });
+                        }
+                        mRecorders.put(sceneNavTag, recorder);
+                        mRecordersSaveToCameraRoll.put(sceneNavTag, saveToCameraRoll);
+                        recorder.start(new ARVideoRecorder.ErrorListener() {
+                            @Override
+                            public void onRecordingFailed(Error error) {
+                                // Lets the next recording start, unless it already replaced this one
+                                if (mRecorders.get(sceneNavTag) == recorder) {
+                                    mRecorders.remove(sceneNavTag);
+                                    mRecordersSaveToCameraRoll.remove(sceneNavTag);
+                                }
+                                reactErrorDelegate.invoke(error.toInt());
+                            }
+                        });
+                        return true;
+                    }
+                }, true);
+            }
+        });
+    }
+
+    // Required by NativeEventEmitter for the segment events
+    @ReactMethod
+    public void addListener(String eventName) {
+    }
+
+    @ReactMethod
+    public void removeListeners(double count) {
+    }
+
     @ReactMethod
     public void stopVideoRecording(final int sceneNavTag, final Promise promise) {
         UIManager uiManager = UIManagerHelper.getUIManager(getReactApplicationContext(), sceneNavTag);
@@ -154,6 +259,39 @@ public class ARSceneNavigatorModule extends ReactContextBaseJavaModule {
                 }
                 VRTARSceneNavigator scene = (VRTARSceneNavigator) sceneView;
 
+                ARVideoRecorder optionsRecorder = mRecorders.remove(sceneNavTag);
+                if (optionsRecorder != null) {
+                    final boolean saveToCameraRoll = Boolean.TRUE.equals(mRecordersSaveToCameraRoll.remove(sceneNavTag));
+                    optionsRecorder.stop(new ARVideoRecorder.FinishListener() {
+                        @Override
+                        public void onFinished(boolean success, String path, ARVideoRecorder.Stats stats) {
+                            WritableMap returnMap = Arguments.createMap();
+                            returnMap.putBoolean(RECORDING_SUCCESS_KEY, success);
+                            returnMap.putInt(RECORDING_ERROR_KEY, success ? Error.NONE.toInt() : Error.WRITE_TO_FILE.toInt());
+                            returnMap.putString(RECORDING_URL_KEY, success ? path : null);
+                            returnMap.putDouble(RECORDING_ENCODED_FRAMES_KEY, stats.encodedFrames);
+                            returnMap.putDouble(RECORDING_DROPPED_FRAMES_KEY, stats.droppedFrames);
+                            if (!stats.segments.isEmpty()) {
+                                WritableArray segments = Arguments.createArray();
+                                for (String segment : stats.segments) {
+                                    segments.pushString(segment);
+                                }
+                                returnMap.putArray(RECORDING_SEGMENTS_KEY, segments);
+                            }
+                            if (success && saveToCameraRoll) {
+                                if (stats.segments.isEmpty()) {
+                                    notifyMediaScanner(new File(path));
+                                }
+                                for (String segment : stats.segments) {
+                                    notifyMediaScanner(new File(segment));
+                                }
+                            }
+                            promise.resolve(returnMap);
+                        }
+                    });
+                    return;
+                }
+
                 // Grab the recorder from the ar scene view
                 final ViroMediaRecorder recorder = scene.getARView().getRecorder();
                 if (recorder == null){
@@ -304,15 +442,19 @@ public class ARSceneNavigatorModule extends ReactContextBaseJavaModule {
 
         // Notify media scanner if saving to camera roll
         if (saveToCameraRoll) {
-            Intent mediaScanIntent = new Intent(Intent.ACTION_MEDIA_SCANNER_SCAN_FILE);
-            Uri contentUri = Uri.fromFile(outputFile);
-            mediaScanIntent.setData(contentUri);
-            mContext.sendBroadcast(mediaScanIntent);
+            notifyMediaScanner(outputFile);
         }
 
         return outputFile.getAbsolutePath();
     }
 
+    private void notifyMediaScanner(File file) {
+        Intent mediaScanIntent = new Intent(Intent.ACTION_MEDIA_SCANNER_SCAN_FILE);
+        Uri contentUri = Uri.fromFile(file);
+        mediaScanIntent.setData(contentUri);
+        mContext.sendBroadcast(mediaScanIntent);
+    }
+
     /**
      * Gets the directory path for saving media files.
      */
@@ -1105,6 +1247,42 @@ public class ARSceneNavigatorModule extends ReactContextBaseJavaModule {
         });
     }
 
+    @ReactMethod
+    public void getAnchoringMetrics(final int sceneNavTag, final Promise promise) {
+        UIManager uiManager = UIManagerHelper.getUIManager(getReactApplicationContext(), sceneNavTag);
+        if (uiManager == null) {
+            WritableMap result = Arguments.createMap();
+            result.putBoolean("success", false);
+            result.putString("error", "UIManager not available");
+            promise.resolve(result);
+            return;
+        }
+
+        ((FabricUIManager) uiManager).addUIBlock(new com.facebook.react.fabric.interop.UIBlock() {
+            @Override
+            public void execute(com.facebook.react.fabric.interop.UIBlockViewResolver viewResolver) {
+                View view = viewResolver.resolveView(sceneNavTag);
+                if (!(view instanceof VRTARSceneNavigator)) {
+                    WritableMap result = Arguments.createMap();
+                    result.putBoolean("success", false);
+                    result.putString("error", "Invalid view type");
+                    promise.resolve(result);
+                    return;
+                }
+
+                WritableMap metrics = ((VRTARSceneNavigator) view).getAnchoringMetrics();
+                WritableMap result = Arguments.createMap();
+                result.putBoolean("success", metrics != null);
+                if (metrics != null) {
+                    result.putMap("metrics", metrics);
+                } else {
+                    result.putString("error", "No AR scene");
+                }
+                promise.resolve(result);
+            }
+        });
+    }
+
     @ReactMethod
     public void getSemanticLabelFraction(final int sceneNavTag, final String label, final Promise promise) {
         UIManager uiManager = UIManagerHelper.getUIManager(getReactApplicationContext(), sceneNavTag);
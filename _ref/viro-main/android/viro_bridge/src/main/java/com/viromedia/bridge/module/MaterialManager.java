@@ -40,8 +40,10 @@ import com.viro.core.internal.Image;
 import com.viro.core.Material;
 import com.viro.core.Texture;
 import com.viromedia.bridge.component.VRTMaterialVideo;
+import com.viromedia.bridge.utility.CubeMapLoader;
 import com.viromedia.bridge.utility.Helper;
 import com.viromedia.bridge.utility.ImageDownloader;
+import com.viromedia.bridge.utility.ViroLog;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
@@ -52,6 +54,7 @@ import java.util.Map;
 
 @ReactModule(name = "VRTMaterialManager")
 public class MaterialManager extends ReactContextBaseJavaModule {
+    private static final String TAG = ViroLog.getTag(MaterialManager.class);
 
     // TODO: figure out a good place to load the libraries.
     static {
@@ -215,8 +218,8 @@ public class MaterialManager extends ReactContextBaseJavaModule {
 
             if (materialPropertyName.endsWith("texture") || materialPropertyName.endsWith("Texture")) {
                 if (materialPropertyName.equalsIgnoreCase("reflectiveTexture")) {
-                    Texture nativeTexture = createTextureCubeMap(materialMap.getMap(materialPropertyName), Texture.Format.RGBA8);
-                    // TODO Reflective texture are unsupported currently
+                    CubeMapLoader.loadAsync(mContext, materialMap.getMap(materialPropertyName),
+                            Texture.Format.RGBA8, new ReflectiveTextureListener(materialName));
                     continue;
                 }
 
@@ -408,55 +411,6 @@ public class MaterialManager extends ReactContextBaseJavaModule {
         }
     }
 
-    private Texture createTextureCubeMap(ReadableMap textureMap, Texture.Format format) {
-        ReadableMapKeySetIterator iter = textureMap.keySetIterator();
-
-        if (!iter.hasNextKey()) {
-            throw new IllegalArgumentException("Error creating cube map: ensure the nx, px, ny, py, nz, and pz params are passed in the body of the cube map texture");
-        }
-
-        final Map<String, Image> cubeMapImages = new HashMap<String, Image>();
-        long cubeSize = -1;
-
-        // create an image for each texture
-        while (iter.hasNextKey()) {
-            final String key = iter.nextKey();
-            if (sImageMap.get(key) != null) {
-                cubeMapImages.put(key, sImageMap.get(key));
-            } else {
-                ImageDownloader downloader = new ImageDownloader(mContext);
-                downloader.setTextureFormat(format);
-                Image nativeImage = new Image(downloader.getImageSync(textureMap), format);
-                cubeMapImages.put(key, nativeImage);
-            }
-
-            Image nativeImageToValidate = cubeMapImages.get(key);
-            // check that the width == height and all sides are the same size
-            if (cubeSize < 0) {
-                cubeSize = nativeImageToValidate.getWidth();
-            }
-
-            if (nativeImageToValidate.getWidth() != cubeSize
-                    || nativeImageToValidate.getHeight() != cubeSize) {
-                throw new IllegalArgumentException("Error loading cube map. Cube map must be square and uniformly sized");
-            }
-        }
-
-        // check that we have all 6 sides
-        if (cubeMapImages.get("px") == null ||
-                cubeMapImages.get("nx") == null ||
-                cubeMapImages.get("py") == null ||
-                cubeMapImages.get("ny") == null ||
-                cubeMapImages.get("pz") == null ||
-                cubeMapImages.get("nz") == null ) {
-            throw new IllegalArgumentException("Some cube map images are null. Please check and fix");
-        }
-        // create and return a Texture w/ all 6 sides.
-        return new Texture(cubeMapImages.get("px"), cubeMapImages.get("nx"),
-                              cubeMapImages.get("py"), cubeMapImages.get("ny"),
-                              cubeMapImages.get("pz"), cubeMapImages.get("nz"));
-    }
-
     private String parseAssetType(ReadableMap map, String key) {
         if ((map.getType(key) == ReadableType.Map) && map.getMap(key).hasKey("type")) {
             String type = map.getMap(key).getString("type");
@@ -556,6 +510,34 @@ public class MaterialManager extends ReactContextBaseJavaModule {
     /**
      * MaterialWrapper Class
      */
+    /**
+     * Receives the cube map of a reflectiveTexture. Material has no reflective texture slot yet, so
+     * the faces are only fetched and validated, and the texture is handed back to
+     * {@link CubeMapLoader}, whose cache keeps it for a skybox using the same faces.
+     */
+    private static class ReflectiveTextureListener implements CubeMapLoader.Listener {
+        private final String mMaterialName;
+
+        ReflectiveTextureListener(String materialName) {
+            mMaterialName = materialName;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public void completed(Texture texture) {
+            CubeMapLoader.release(texture);
+        }
+
+        @Override
+        public void failed(String error) {
+            ViroLog.warn(TAG, "Reflective texture of material " + mMaterialName + " failed: " + error);
+        }
+    }
+
     public class MaterialWrapper {
         private String mMaterialName;
         private Material mNativeMaterial;
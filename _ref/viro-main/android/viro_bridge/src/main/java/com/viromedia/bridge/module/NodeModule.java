@@ -46,12 +46,26 @@ import com.viromedia.bridge.component.node.VRTNode;
 
 import com.viro.core.Node;
 import com.viromedia.bridge.component.node.control.VRT3DObject;
+import com.viromedia.bridge.utility.ViroLog;
+import java.util.Arrays;
 import java.util.Set;
 
 import static java.lang.Math.toDegrees;
 
 @ReactModule(name = "VRTNodeModule")
 public class NodeModule extends ReactContextBaseJavaModule {
+    private static final String TAG = ViroLog.getTag(NodeModule.class);
+
+    // Each streamed transform record is [tag, px, py, pz, rx, ry, rz, sx, sy, sz].
+    private static final int TRANSFORM_RECORD_SIZE = 1 + VRTNode.TRANSFORM_VALUE_COUNT;
+
+    // Transforms received from JS wait in the pending buffer until the next UI block applies them.
+    // The two buffers are swapped rather than reallocated, so steady-state streaming doesn't
+    // allocate.
+    private final Object mTransformLock = new Object();
+    private TransformBuffer mPendingTransforms = new TransformBuffer();
+    private TransformBuffer mAppliedTransforms = new TransformBuffer();
+    private boolean mTransformBlockScheduled = false;
 
     public NodeModule(ReactApplicationContext context) {
         super(context);
@@ -261,4 +275,103 @@ public class NodeModule extends ReactContextBaseJavaModule {
             }
         });
     }
+
+    /**
+     * Sets the transforms of many nodes at once. The records array is a flat list of
+     * [tag, px, py, pz, rx, ry, rz, sx, sy, sz] records, with rotations in degrees. Records
+     * that arrive before the UI thread gets to them are applied together in a single pass.
+     */
+    @ReactMethod
+    public void applyTransforms(final ReadableArray records) {
+        if (records == null || records.size() == 0) {
+            return;
+        }
+        if (records.size() % TRANSFORM_RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Transform records require " + TRANSFORM_RECORD_SIZE
+                    + " values each: [tag, px, py, pz, rx, ry, rz, sx, sy, sz]");
+        }
+
+        boolean needsBlock;
+        synchronized (mTransformLock) {
+            mPendingTransforms.append(records);
+            needsBlock = !mTransformBlockScheduled;
+            mTransformBlockScheduled = true;
+        }
+        if (!needsBlock) {
+            return;
+        }
+
+        UIManager uiManager = UIManagerHelper.getUIManager(getReactApplicationContext(), records.getInt(0));
+        if (uiManager == null) {
+            synchronized (mTransformLock) {
+                mPendingTransforms.clear();
+                mTransformBlockScheduled = false;
+            }
+            return;
+        }
+        ((FabricUIManager) uiManager).addUIBlock(new com.facebook.react.fabric.interop.UIBlock() {
+            @Override
+            public void execute(com.facebook.react.fabric.interop.UIBlockViewResolver viewResolver) {
+                TransformBuffer transforms;
+                synchronized (mTransformLock) {
+                    transforms = mPendingTransforms;
+                    mPendingTransforms = mAppliedTransforms;
+                    mAppliedTransforms = transforms;
+                    mTransformBlockScheduled = false;
+                }
+
+                for (int i = 0; i < transforms.mCount; i++) {
+                    View view;
+                    try {
+                        view = viewResolver.resolveView(transforms.mTags[i]);
+                    } catch (RuntimeException e) {
+                        view = null;
+                    }
+                    if (!(view instanceof VRTNode)) {
+                        ViroLog.warn(TAG, "Skipping streamed transform for invalid node tag " + transforms.mTags[i]);
+                        continue;
+                    }
+                    ((VRTNode) view).setTransform(transforms.mValues, i * VRTNode.TRANSFORM_VALUE_COUNT);
+                }
+                transforms.clear();
+            }
+        });
+    }
+
+    /**
+     * Growable store of unpacked transform records.
+     */
+    private static class TransformBuffer {
+        private int[] mTags = new int[64];
+        private float[] mValues = new float[64 * VRTNode.TRANSFORM_VALUE_COUNT];
+        private int mCount = 0;
+
+        void append(ReadableArray records) {
+            int recordCount = records.size() / TRANSFORM_RECORD_SIZE;
+            ensureCapacity(mCount + recordCount);
+
+            for (int record = 0; record < recordCount; record++) {
+                int source = record * TRANSFORM_RECORD_SIZE;
+                int target = mCount * VRTNode.TRANSFORM_VALUE_COUNT;
+                mTags[mCount] = records.getInt(source);
+                for (int i = 0; i < VRTNode.TRANSFORM_VALUE_COUNT; i++) {
+                    mValues[target + i] = (float) records.getDouble(source + 1 + i);
+                }
+                mCount++;
+            }
+        }
+
+        void clear() {
+            mCount = 0;
+        }
+
+        private void ensureCapacity(int count) {
+            if (count <= mTags.length) {
+                return;
+            }
+            int capacity = Math.max(count, mTags.length * 2);
+            mTags = Arrays.copyOf(mTags, capacity);
+            mValues = Arrays.copyOf(mValues, capacity * VRTNode.TRANSFORM_VALUE_COUNT);
+        }
+    }
 }
@@ -0,0 +1,88 @@
+//  Copyright © 2016 Viro Media. All rights reserved.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining
+//  a copy of this software and associated documentation files (the
+//  "Software"), to deal in the Software without restriction, including
+//  without limitation the rights to use, copy, modify, merge, publish,
+//  distribute, sublicense, and/or sell copies of the Software, and to
+//  permit persons to whom the Software is furnished to do so, subject to
+//  the following conditions:
+//
+//  The above copyright notice and this permission notice shall be included
+//  in all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+//  EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+//  MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+//  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+//  CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+//  TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+//  SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.viromedia.bridge.module;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.module.annotations.ReactModule;
+import com.viromedia.bridge.utility.ViroTelemetry;
+
+/**
+ * Exposes {@link ViroTelemetry} to JS so that frame timing and resource usage can be collected
+ * from release builds, unlike the dev-menu FPS display offered by {@link PerfMonitor}.
+ */
+@ReactModule(name = "VRTTelemetry")
+public class TelemetryModule extends ReactContextBaseJavaModule {
+    private static final String TRACE_MAX_BYTES_KEY = "maxBytes";
+
+    @Override
+    public String getName() {
+        return "VRTTelemetry";
+    }
+    // https://stackoverflow.com/a/44879687
+    @Override
+    public boolean canOverrideExistingModule() {
+        return true;
+    }
+    public TelemetryModule(ReactApplicationContext context) {
+        super(context);
+    }
+
+    @ReactMethod
+    public void setEnabled(boolean enabled) {
+        ViroTelemetry.setEnabled(enabled);
+    }
+
+    @ReactMethod
+    public void reset() {
+        ViroTelemetry.reset();
+    }
+
+    @ReactMethod
+    public void getSnapshot(Promise promise) {
+        promise.resolve(ViroTelemetry.getSnapshot());
+    }
+
+    @ReactMethod
+    public void startTrace(ReadableMap options) {
+        long maxBytes = 0;
+        if (options != null && options.hasKey(TRACE_MAX_BYTES_KEY)) {
+            maxBytes = (long) options.getDouble(TRACE_MAX_BYTES_KEY);
+        }
+        ViroTelemetry.startTrace(getReactApplicationContext(), maxBytes);
+    }
+
+    @ReactMethod
+    public void stopTrace() {
+        ViroTelemetry.stopTrace();
+    }
+
+    @Override
+    public void invalidate() {
+        ViroTelemetry.stopTrace();
+        super.invalidate();
+    }
+}
@@ -0,0 +1,159 @@
+//  Copyright © 2017 Viro Media. All rights reserved.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining
+//  a copy of this software and associated documentation files (the
+//  "Software"), to deal in the Software without restriction, including
+//  without limitation the rights to use, copy, modify, merge, publish,
+//  distribute, sublicense, and/or sell copies of the Software, and to
+//  permit persons to whom the Software is furnished to do so, subject to
+//  the following conditions:
+//
+//  The above copyright notice and this permission notice shall be included
+//  in all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+//  EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+//  MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+//  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+//  CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+//  TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+//  SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.viromedia.bridge.utility;
+
+import android.media.MediaCodec;
+import android.media.MediaFormat;
+import android.media.MediaMuxer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the encoded tracks of an {@link ARVideoRecorder} recording into an MP4 file.
+ *
+ * The muxer can only start once every track has been added, so samples that arrive before (the
+ * video encoder usually outputs its first frames before the audio encoder knows its format) are
+ * copied and written once it starts. Timestamps are made relative to the start of the recording.
+ *
+ * Called from the encoder threads.
+ */
+public class ARRecordingMuxer {
+    private static final String TAG = ViroLog.getTag(ARRecordingMuxer.class);
+
+    private static class PendingSample {
+        final int track;
+        final ByteBuffer data;
+        final MediaCodec.BufferInfo info;
+
+        PendingSample(int track, ByteBuffer data, MediaCodec.BufferInfo info) {
+            this.track = track;
+            this.data = data;
+            this.info = info;
+        }
+    }
+
+    private final MediaMuxer mMuxer;
+    private final int mTrackCount;
+    private final long mStartTimeUs;
+    private final List<MediaFormat> mFormats = new ArrayList<>();
+    private final List<PendingSample> mPendingSamples = new ArrayList<>();
+    private final MediaCodec.BufferInfo mInfo = new MediaCodec.BufferInfo();
+    private boolean mStarted;
+    private boolean mFinished;
+    private boolean mHasSamples;
+
+    /**
+     * @param trackCount number of tracks {@link #addTrack} will be called with
+     * @param startTimeUs start of the recording, in the {@link System#nanoTime()} time base
+     */
+    public ARRecordingMuxer(String path, int trackCount, long startTimeUs) throws IOException {
+        mMuxer = new MediaMuxer(path, MediaMuxer.OutputFormat.MUXER_OUTPUT_MPEG_4);
+        mTrackCount = trackCount;
+        mStartTimeUs = startTimeUs;
+    }
+
+    /**
+     * @return the index of the track, for {@link #writeSample}
+     */
+    public synchronized int addTrack(MediaFormat format) {
+        mFormats.add(format);
+        int track = mMuxer.addTrack(format);
+        if (mFormats.size() == mTrackCount) {
+            mMuxer.start();
+            mStarted = true;
+            for (PendingSample sample : mPendingSamples) {
+                write(sample.track, sample.data, sample.info);
+            }
+            mPendingSamples.clear();
+        }
+        return track;
+    }
+
+    /**
+     * @return whether every track has been added and samples are written to the file
+     */
+    public synchronized boolean isStarted() {
+        return mStarted;
+    }
+
+    /**
+     * @return false if the sample was dropped because the file is already complete
+     */
+    public synchronized boolean writeSample(int track, ByteBuffer data, MediaCodec.BufferInfo info) {
+        if (mFinished) {
+            return false;
+        }
+        if (info.size == 0) {
+            return true;
+        }
+        if (!mStarted) {
+            ByteBuffer copy = ByteBuffer.allocate(info.size);
+            data.position(info.offset);
+            data.limit(info.offset + info.size);
+            copy.put(data);
+            copy.flip();
+            MediaCodec.BufferInfo copyInfo = new MediaCodec.BufferInfo();
+            copyInfo.set(0, info.size, info.presentationTimeUs, info.flags);
+            mPendingSamples.add(new PendingSample(track, copy, copyInfo));
+            return true;
+        }
+        write(track, data, info);
+        return true;
+    }
+
+    private void write(int track, ByteBuffer data, MediaCodec.BufferInfo info) {
+        long presentationTimeUs = info.presentationTimeUs - mStartTimeUs;
+        if (presentationTimeUs < 0) {
+            // Captured before the recording started
+            return;
+        }
+        mInfo.set(info.offset, info.size, presentationTimeUs, info.flags);
+        mMuxer.writeSampleData(track, data, mInfo);
+        mHasSamples = true;
+    }
+
+    /**
+     * Completes the file.
+     *
+     * @return whether the file is a valid recording
+     */
+    public synchronized boolean finish() {
+        if (mFinished) {
+            return mHasSamples;
+        }
+        mFinished = true;
+        boolean success = mStarted && mHasSamples;
+        try {
+            if (mStarted) {
+                mMuxer.stop();
+            }
+        } catch (IllegalStateException e) {
+            ViroLog.error(TAG, "Failed to complete the recording: " + e.getMessage());
+            success = false;
+        }
+        mMuxer.release();
+        return success;
+    }
+}
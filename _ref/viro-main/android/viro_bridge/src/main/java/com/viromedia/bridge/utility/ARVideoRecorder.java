@@ -0,0 +1,898 @@
+//  Copyright © 2017 Viro Media. All rights reserved.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining
+//  a copy of this software and associated documentation files (the
+//  "Software"), to deal in the Software without restriction, including
+//  without limitation the rights to use, copy, modify, merge, publish,
+//  distribute, sublicense, and/or sell copies of the Software, and to
+//  permit persons to whom the Software is furnished to do so, subject to
+//  the following conditions:
+//
+//  The above copyright notice and this permission notice shall be included
+//  in all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+//  EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+//  MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+//  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+//  CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+//  TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+//  SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.viromedia.bridge.utility;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.MediaCodec;
+import android.media.MediaCodecInfo;
+import android.media.MediaCodecList;
+import android.media.MediaFormat;
+import android.media.MediaRecorder;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.PixelCopy;
+import android.view.Surface;
+import android.view.SurfaceView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.viro.core.ViroMediaRecorder.Error;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records the AR view into an MP4 file with hardware encoders whose parameters are configurable,
+ * unlike ViroMediaRecorder's (full resolution, 7 Mbps, 30 fps, H.264).
+ *
+ * Frames are copied from the AR view's surface with {@link PixelCopy} at the capped frame rate,
+ * scaled to the recording resolution by the copy, and drawn into the input surface of a
+ * {@link MediaCodec} encoder. None of this runs on the render thread: when a copy is still in
+ * flight at the next frame, e.g. because the GPU is busy with a heavy scene, the frame is dropped
+ * and counted, instead of slowing down rendering.
+ *
+ * Audio is recorded from the microphone when the app has the permission.
+ *
+ * With a segment duration, the recording is split into MP4 segments while recording, each
+ * starting on a key frame, so they can be uploaded before the recording stops. A segment is
+ * completed on a separate thread and reported to the {@link SegmentListener}; the file at the
+ * recording path is then an ffconcat manifest listing the segments in order.
+ */
+public class ARVideoRecorder {
+    private static final String TAG = ViroLog.getTag(ARVideoRecorder.class);
+
+    public static final String CODEC_H264 = "h264";
+    public static final String CODEC_HEVC = "hevc";
+
+    // Encoders require sizes aligned to their macroblocks
+    private static final int SIZE_ALIGNMENT = 16;
+
+    private static final int AUDIO_SAMPLE_RATE = 44100;
+    private static final int AUDIO_BIT_RATE = 128000;
+    private static final int AUDIO_CHANNEL_COUNT = 1;
+
+    // Encoders that haven't flushed by then are released anyway
+    private static final long STOP_TIMEOUT_MS = 3000;
+
+    // Audio is encoded with some latency, a segment is completed once its late samples are written
+    private static final long SEGMENT_COMPLETION_DELAY_MS = 250;
+
+    public static class Options {
+        // Recording size relative to the view, in (0, 1]
+        public float resolutionScale = 1f;
+        // Same defaults as ViroMediaRecorder
+        public int bitRate = 7000000;
+        public int fps = 30;
+        // Seconds between key frames
+        public float keyFrameInterval = 1f;
+        public String codec = CODEC_H264;
+        // Seconds per segment, 0 records a single file. Segments are no shorter than the delay
+        // before a segment is completed, so at most one segment is waiting for late audio.
+        public float segmentDuration = 0f;
+
+        public boolean isSegmented() {
+            return segmentDuration > 0;
+        }
+
+        public static Options fromMap(ReadableMap map) {
+            Options options = new Options();
+            if (map.hasKey("resolutionScale")) {
+                options.resolutionScale = Math.max(0.1f, Math.min(1f, (float) map.getDouble("resolutionScale")));
+            }
+            if (map.hasKey("bitrate")) {
+                options.bitRate = Math.max(100000, map.getInt("bitrate"));
+            }
+            if (map.hasKey("fps")) {
+                options.fps = Math.max(1, Math.min(60, map.getInt("fps")));
+            }
+            if (map.hasKey("keyframeInterval")) {
+                options.keyFrameInterval = Math.max(0f, (float) map.getDouble("keyframeInterval"));
+            }
+            if (map.hasKey("codec")) {
+                options.codec = CODEC_HEVC.equalsIgnoreCase(map.getString("codec")) ? CODEC_HEVC : CODEC_H264;
+            }
+            if (map.hasKey("segmentDuration")) {
+                float segmentDuration = (float) map.getDouble("segmentDuration");
+                options.segmentDuration = segmentDuration > 0
+                        ? Math.max(SEGMENT_COMPLETION_DELAY_MS / 1000f, segmentDuration) : 0f;
+            }
+            return options;
+        }
+    }
+
+    public static class Stats {
+        public final long encodedFrames;
+        public final long droppedFrames;
+        public final int width;
+        public final int height;
+        public final String codec;
+        // Paths of the completed segments, in order, empty without segments
+        public final List<String> segments;
+
+        Stats(long encodedFrames, long droppedFrames, int width, int height, String codec, List<String> segments) {
+            this.encodedFrames = encodedFrames;
+            this.droppedFrames = droppedFrames;
+            this.width = width;
+            this.height = height;
+            this.codec = codec;
+            this.segments = segments;
+        }
+    }
+
+    public interface ErrorListener {
+        void onRecordingFailed(Error error);
+    }
+
+    public interface FinishListener {
+        void onFinished(boolean success, String path, Stats stats);
+    }
+
+    public interface SegmentListener {
+        /**
+         * @param duration in seconds
+         */
+        void onSegmentReady(String path, int index, double duration);
+    }
+
+    private final Context mContext;
+    private final SurfaceView mSurfaceView;
+    private final String mPath;
+    private final Options mOptions;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    private HandlerThread mCaptureThread;
+    private Handler mCaptureHandler;
+    private HandlerThread mEncoderThread;
+    private HandlerThread mAudioThread;
+    private HandlerThread mSegmentThread;
+    private Handler mSegmentHandler;
+
+    private MediaCodec mVideoEncoder;
+    private Surface mInputSurface;
+    private MediaCodec mAudioEncoder;
+    private AudioRecord mAudioRecord;
+    private ARRecordingMuxer mMuxer;
+    private Bitmap mFrame;
+    private int mWidth;
+    private int mHeight;
+    private String mCodec;
+
+    private ErrorListener mErrorListener;
+    private FinishListener mFinishListener;
+    private SegmentListener mSegmentListener;
+
+    // Capture thread state
+    private long mStartUptimeMs;
+    private long mFrameIndex;
+    private boolean mCopyPending;
+    private boolean mFrameReleased;
+    private volatile boolean mCapturing;
+    private volatile long mEncodedFrames;
+    private volatile long mDroppedFrames;
+
+    // Encoder state, guarded by this
+    private int mVideoTrack = -1;
+    private int mAudioTrack = -1;
+    private boolean mVideoDone;
+    private boolean mAudioDone = true;
+    private volatile boolean mAudioStopping;
+    private boolean mFinished;
+    private boolean mFailed;
+    private int mTrackCount;
+    private MediaFormat mVideoFormat;
+    private MediaFormat mAudioFormat;
+
+    // Segment state, guarded by this
+    private ARRecordingMuxer mPreviousMuxer;
+    // Late audio samples that arrived after their segment was completed
+    private long mDroppedAudioSamples;
+    private int mSegmentIndex;
+    private long mSegmentStartUs;
+    private long mLastVideoUs;
+    private boolean mSyncFrameRequested;
+    private final List<String> mSegmentPaths = new ArrayList<>();
+    private final List<Double> mSegmentDurations = new ArrayList<>();
+
+    public ARVideoRecorder(Context context, SurfaceView surfaceView, String path, Options options) {
+        mContext = context.getApplicationContext();
+        mSurfaceView = surfaceView;
+        mPath = path;
+        mOptions = options;
+    }
+
+    /**
+     * Sets the listener of completed segments, called on the main thread. Must be set before
+     * {@link #start}.
+     */
+    public void setSegmentListener(SegmentListener segmentListener) {
+        mSegmentListener = segmentListener;
+    }
+
+    /**
+     * @return the surface the AR view renders into, or null if it has none yet
+     */
+    public static SurfaceView findSurfaceView(View view) {
+        if (view instanceof SurfaceView) {
+            return (SurfaceView) view;
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                SurfaceView surfaceView = findSurfaceView(group.getChildAt(i));
+                if (surfaceView != null) {
+                    return surfaceView;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts recording. Must be called on the main thread. errorListener is called at most once,
+     * on the main thread, if the recording fails to start or fails while recording.
+     */
+    public void start(ErrorListener errorListener) {
+        mErrorListener = errorListener;
+
+        int viewWidth = mSurfaceView.getWidth();
+        int viewHeight = mSurfaceView.getHeight();
+        if (viewWidth <= 0 || viewHeight <= 0) {
+            failToStart(Error.INITIALIZATION);
+            return;
+        }
+        mWidth = align(Math.round(viewWidth * mOptions.resolutionScale));
+        mHeight = align(Math.round(viewHeight * mOptions.resolutionScale));
+
+        boolean recordAudio = false;
+        if (ContextCompat.checkSelfPermission(mContext, "android.permission.RECORD_AUDIO") == 0) {
+            int minBufferSize = AudioRecord.getMinBufferSize(AUDIO_SAMPLE_RATE,
+                    AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT);
+            mAudioRecord = new AudioRecord(MediaRecorder.AudioSource.MIC, AUDIO_SAMPLE_RATE,
+                    AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT, minBufferSize * 4);
+            recordAudio = mAudioRecord.getState() == AudioRecord.STATE_INITIALIZED;
+            if (!recordAudio) {
+                ViroLog.warn(TAG, "Microphone unavailable, recording without audio");
+                mAudioRecord.release();
+                mAudioRecord = null;
+            }
+        }
+
+        long startTimeUs = System.nanoTime() / 1000;
+        try {
+            mVideoEncoder = createVideoEncoder();
+            if (recordAudio) {
+                mAudioEncoder = createAudioEncoder();
+            }
+            mTrackCount = recordAudio ? 2 : 1;
+            mMuxer = new ARRecordingMuxer(mOptions.isSegmented() ? getSegmentPath(0) : mPath,
+                    mTrackCount, startTimeUs);
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            ViroLog.error(TAG, "Failed to initialize the recorder: " + e.getMessage());
+            release();
+            failToStart(Error.INITIALIZATION);
+            return;
+        }
+        mFrame = Bitmap.createBitmap(mWidth, mHeight, Bitmap.Config.ARGB_8888);
+
+        if (mOptions.isSegmented()) {
+            mSegmentStartUs = startTimeUs;
+            mLastVideoUs = startTimeUs;
+            mSegmentThread = new HandlerThread("ViroRecorderSegments");
+            mSegmentThread.start();
+            mSegmentHandler = new Handler(mSegmentThread.getLooper());
+        }
+
+        mEncoderThread = new HandlerThread("ViroRecorderEncoder");
+        mEncoderThread.start();
+        mVideoEncoder.setCallback(new VideoEncoderCallback(), new Handler(mEncoderThread.getLooper()));
+        mInputSurface = mVideoEncoder.createInputSurface();
+        mVideoEncoder.start();
+
+        if (recordAudio) {
+            mAudioDone = false;
+            mAudioThread = new HandlerThread("ViroRecorderAudio");
+            mAudioThread.start();
+            mAudioEncoder.setCallback(new AudioEncoderCallback(), new Handler(mAudioThread.getLooper()));
+            mAudioRecord.startRecording();
+            mAudioEncoder.start();
+        }
+
+        mCaptureThread = new HandlerThread("ViroRecorderCapture");
+        mCaptureThread.start();
+        mCaptureHandler = new Handler(mCaptureThread.getLooper());
+        mCapturing = true;
+        mStartUptimeMs = SystemClock.uptimeMillis();
+        mCaptureHandler.post(mCaptureFrame);
+    }
+
+    /**
+     * Stops recording and completes the file. finishListener is called on the main thread.
+     */
+    public void stop(FinishListener finishListener) {
+        synchronized (this) {
+            mFinishListener = finishListener;
+            if (mFinished) {
+                notifyFinished();
+                return;
+            }
+        }
+        mCapturing = false;
+        mAudioStopping = true;
+        if (mCaptureHandler != null) {
+            mCaptureHandler.removeCallbacks(mCaptureFrame);
+            // After any copy in flight, so its frame is encoded
+            mCaptureHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        mVideoEncoder.signalEndOfInputStream();
+                    } catch (IllegalStateException e) {
+                        onVideoDone();
+                    }
+                }
+            });
+        }
+        mMainHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (ARVideoRecorder.this) {
+                    if (!mFinished) {
+                        ViroLog.warn(TAG, "Encoders didn't flush in time, completing the recording");
+                        finishLocked();
+                    }
+                }
+            }
+        }, STOP_TIMEOUT_MS);
+    }
+
+    public long getDroppedFrames() {
+        return mDroppedFrames;
+    }
+
+    private String getSegmentPath(int index) {
+        int extension = mPath.lastIndexOf('.');
+        String base = extension > mPath.lastIndexOf('/') ? mPath.substring(0, extension) : mPath;
+        return base + String.format(Locale.US, "_%03d.mp4", index);
+    }
+
+    private MediaCodec createVideoEncoder() throws IOException {
+        String mimeType = CODEC_HEVC.equals(mOptions.codec)
+                ? MediaFormat.MIMETYPE_VIDEO_HEVC
+                : MediaFormat.MIMETYPE_VIDEO_AVC;
+        MediaFormat format = createVideoFormat(mimeType);
+        MediaCodecList codecs = new MediaCodecList(MediaCodecList.REGULAR_CODECS);
+        String encoderName = codecs.findEncoderForFormat(format);
+        if (encoderName == null && MediaFormat.MIMETYPE_VIDEO_HEVC.equals(mimeType)) {
+            ViroLog.warn(TAG, "No HEVC encoder for " + mWidth + "x" + mHeight + ", falling back to H.264");
+            mimeType = MediaFormat.MIMETYPE_VIDEO_AVC;
+            format = createVideoFormat(mimeType);
+            encoderName = codecs.findEncoderForFormat(format);
+        }
+        if (encoderName == null) {
+            throw new IOException("No encoder for " + format);
+        }
+        mCodec = MediaFormat.MIMETYPE_VIDEO_HEVC.equals(mimeType) ? CODEC_HEVC : CODEC_H264;
+
+        MediaCodec encoder = MediaCodec.createByCodecName(encoderName);
+        encoder.configure(format, null, null, MediaCodec.CONFIGURE_FLAG_ENCODE);
+        return encoder;
+    }
+
+    private MediaFormat createVideoFormat(String mimeType) {
+        MediaFormat format = MediaFormat.createVideoFormat(mimeType, mWidth, mHeight);
+        format.setInteger(MediaFormat.KEY_COLOR_FORMAT, MediaCodecInfo.CodecCapabilities.COLOR_FormatSurface);
+        format.setInteger(MediaFormat.KEY_BIT_RATE, mOptions.bitRate);
+        format.setInteger(MediaFormat.KEY_FRAME_RATE, mOptions.fps);
+        format.setFloat(MediaFormat.KEY_I_FRAME_INTERVAL, mOptions.keyFrameInterval);
+        return format;
+    }
+
+    private MediaCodec createAudioEncoder() throws IOException {
+        MediaFormat format = MediaFormat.createAudioFormat(MediaFormat.MIMETYPE_AUDIO_AAC,
+                AUDIO_SAMPLE_RATE, AUDIO_CHANNEL_COUNT);
+        format.setInteger(MediaFormat.KEY_AAC_PROFILE, MediaCodecInfo.CodecProfileLevel.AACObjectLC);
+        format.setInteger(MediaFormat.KEY_BIT_RATE, AUDIO_BIT_RATE);
+        MediaCodec encoder = MediaCodec.createEncoderByType(MediaFormat.MIMETYPE_AUDIO_AAC);
+        encoder.configure(format, null, null, MediaCodec.CONFIGURE_FLAG_ENCODE);
+        return encoder;
+    }
+
+    private static int align(int size) {
+        return Math.max(SIZE_ALIGNMENT, size / SIZE_ALIGNMENT * SIZE_ALIGNMENT);
+    }
+
+    /**
+     * Copies the current frame of the AR view, then schedules the next one. Runs on the capture
+     * thread.
+     */
+    private final Runnable mCaptureFrame = new Runnable() {
+        @Override
+        public void run() {
+            if (!mCapturing) {
+                return;
+            }
+            if (mCopyPending) {
+                mDroppedFrames++;
+            } else if (mSurfaceView.getHolder().getSurface().isValid()) {
+                mCopyPending = true;
+                try {
+                    PixelCopy.request(mSurfaceView, mFrame, mFrameCopied, mCaptureHandler);
+                } catch (IllegalArgumentException e) {
+                    // The surface went away since the check
+                    mCopyPending = false;
+                    mDroppedFrames++;
+                }
+            } else {
+                mDroppedFrames++;
+            }
+
+            // Scheduled from the start of the recording so the frame rate doesn't drift
+            mFrameIndex++;
+            long nextFrameMs = mStartUptimeMs + mFrameIndex * 1000 / mOptions.fps;
+            long now = SystemClock.uptimeMillis();
+            if (nextFrameMs < now) {
+                // Too late for the frames in between
+                long missed = (now - nextFrameMs) * mOptions.fps / 1000;
+                mDroppedFrames += missed;
+                mFrameIndex += missed;
+                nextFrameMs = mStartUptimeMs + mFrameIndex * 1000 / mOptions.fps;
+            }
+            mCaptureHandler.postAtTime(this, nextFrameMs);
+        }
+    };
+
+    private final PixelCopy.OnPixelCopyFinishedListener mFrameCopied = new PixelCopy.OnPixelCopyFinishedListener() {
+        @Override
+        public void onPixelCopyFinished(int copyResult) {
+            mCopyPending = false;
+            if (mFrameReleased) {
+                mFrame.recycle();
+                return;
+            }
+            if (copyResult != PixelCopy.SUCCESS) {
+                mDroppedFrames++;
+                return;
+            }
+            try {
+                Canvas canvas = mInputSurface.lockHardwareCanvas();
+                try {
+                    canvas.drawBitmap(mFrame, 0, 0, null);
+                } finally {
+                    mInputSurface.unlockCanvasAndPost(canvas);
+                }
+                mEncodedFrames++;
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                // The encoder has been released by a failure
+                mDroppedFrames++;
+            }
+        }
+    };
+
+    private final Runnable mReleaseFrame = new Runnable() {
+        @Override
+        public void run() {
+            mFrameReleased = true;
+            if (!mCopyPending) {
+                mFrame.recycle();
+            }
+        }
+    };
+
+    private class VideoEncoderCallback extends MediaCodec.Callback {
+        @Override
+        public void onInputBufferAvailable(@NonNull MediaCodec codec, int index) {
+            // Input comes from the surface
+        }
+
+        @Override
+        public void onOutputBufferAvailable(@NonNull MediaCodec codec, int index, @NonNull MediaCodec.BufferInfo info) {
+            writeOutput(codec, index, info, true);
+        }
+
+        @Override
+        public void onError(@NonNull MediaCodec codec, @NonNull MediaCodec.CodecException e) {
+            ViroLog.error(TAG, "Video encoder failed: " + e.getMessage());
+            onEncoderFailed();
+        }
+
+        @Override
+        public void onOutputFormatChanged(@NonNull MediaCodec codec, @NonNull MediaFormat format) {
+            synchronized (ARVideoRecorder.this) {
+                if (!mFinished) {
+                    mVideoFormat = format;
+                    mVideoTrack = mMuxer.addTrack(format);
+                }
+            }
+        }
+    }
+
+    private class AudioEncoderCallback extends MediaCodec.Callback {
+        @Override
+        public void onInputBufferAvailable(@NonNull MediaCodec codec, int index) {
+            try {
+                ByteBuffer buffer = codec.getInputBuffer(index);
+                if (mAudioStopping || buffer == null) {
+                    codec.queueInputBuffer(index, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                    return;
+                }
+                // Blocks until the microphone has data, on the audio thread
+                int read = mAudioRecord.read(buffer, buffer.remaining());
+                if (read < 0) {
+                    read = 0;
+                }
+                // Timestamp of the first sample read, in the time base of the video frames
+                long durationUs = (long) read / 2 * 1000000 / AUDIO_SAMPLE_RATE;
+                long presentationTimeUs = System.nanoTime() / 1000 - durationUs;
+                codec.queueInputBuffer(index, 0, read, presentationTimeUs, 0);
+            } catch (IllegalStateException e) {
+                // Released by a failure or the stop timeout
+            }
+        }
+
+        @Override
+        public void onOutputBufferAvailable(@NonNull MediaCodec codec, int index, @NonNull MediaCodec.BufferInfo info) {
+            writeOutput(codec, index, info, false);
+        }
+
+        @Override
+        public void onError(@NonNull MediaCodec codec, @NonNull MediaCodec.CodecException e) {
+            ViroLog.error(TAG, "Audio encoder failed: " + e.getMessage());
+            onEncoderFailed();
+        }
+
+        @Override
+        public void onOutputFormatChanged(@NonNull MediaCodec codec, @NonNull MediaFormat format) {
+            synchronized (ARVideoRecorder.this) {
+                if (!mFinished) {
+                    mAudioFormat = format;
+                    mAudioTrack = mMuxer.addTrack(format);
+                }
+            }
+        }
+    }
+
+    private void writeOutput(MediaCodec codec, int index, MediaCodec.BufferInfo info, boolean video) {
+        boolean endOfStream = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+        synchronized (this) {
+            if (mFinished) {
+                return;
+            }
+            try {
+                // Codec config is already part of the track format
+                if ((info.flags & MediaCodec.BUFFER_FLAG_CODEC_CONFIG) == 0) {
+                    if (video && mSegmentHandler != null && info.size > 0) {
+                        updateSegmentLocked(codec, info);
+                    }
+                    ARRecordingMuxer muxer = mMuxer;
+                    if (!video && mPreviousMuxer != null && info.presentationTimeUs < mSegmentStartUs) {
+                        // Late audio of the previous segment
+                        muxer = mPreviousMuxer;
+                    }
+                    ByteBuffer buffer = codec.getOutputBuffer(index);
+                    if (buffer != null && !muxer.writeSample(video ? mVideoTrack : mAudioTrack, buffer, info)
+                            && muxer == mPreviousMuxer) {
+                        mDroppedAudioSamples++;
+                    }
+                }
+                codec.releaseOutputBuffer(index, false);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                ViroLog.error(TAG, "Failed to write the recording: " + e.getMessage());
+                mFailed = true;
+            }
+        }
+        if (endOfStream) {
+            if (video) {
+                onVideoDone();
+            } else {
+                onAudioDone();
+            }
+        }
+    }
+
+    /**
+     * Starts a new segment at a key frame once the current one is long enough, before the frame is
+     * written. Requests a key frame when the encoder hasn't produced one in time.
+     */
+    private void updateSegmentLocked(MediaCodec codec, MediaCodec.BufferInfo info) {
+        long segmentDurationUs = (long) (mOptions.segmentDuration * 1000000);
+        if (info.presentationTimeUs - mSegmentStartUs >= segmentDurationUs && mMuxer.isStarted()) {
+            if ((info.flags & MediaCodec.BUFFER_FLAG_KEY_FRAME) != 0) {
+                startSegmentLocked(info.presentationTimeUs);
+            } else if (!mSyncFrameRequested) {
+                mSyncFrameRequested = true;
+                Bundle parameters = new Bundle();
+                parameters.putInt(MediaCodec.PARAMETER_KEY_REQUEST_SYNC_FRAME, 0);
+                codec.setParameters(parameters);
+            }
+        }
+        mLastVideoUs = info.presentationTimeUs;
+    }
+
+    private void startSegmentLocked(long startTimeUs) {
+        ARRecordingMuxer muxer;
+        try {
+            muxer = new ARRecordingMuxer(getSegmentPath(mSegmentIndex + 1), mTrackCount, startTimeUs);
+        } catch (IOException e) {
+            // Keep writing the current segment
+            ViroLog.error(TAG, "Failed to start a recording segment: " + e.getMessage());
+            return;
+        }
+        // Same order as the first segment, so the track indices stay the same
+        boolean audioFirst = mAudioFormat != null && mAudioTrack < mVideoTrack;
+        if (audioFirst) {
+            muxer.addTrack(mAudioFormat);
+        }
+        muxer.addTrack(mVideoFormat);
+        if (mAudioFormat != null && !audioFirst) {
+            muxer.addTrack(mAudioFormat);
+        }
+
+        final ARRecordingMuxer completed = mMuxer;
+        final int index = mSegmentIndex;
+        final double duration = (startTimeUs - mSegmentStartUs) / 1000000.0;
+        mPreviousMuxer = completed;
+        mMuxer = muxer;
+        mSegmentIndex++;
+        mSegmentStartUs = startTimeUs;
+        mSyncFrameRequested = false;
+        mSegmentHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                completeSegment(completed, index, duration);
+            }
+        }, SEGMENT_COMPLETION_DELAY_MS);
+    }
+
+    /**
+     * Completes the file of a segment and reports it. Runs on the segment thread.
+     */
+    private void completeSegment(ARRecordingMuxer muxer, final int index, final double duration) {
+        if (!muxer.finish()) {
+            // Nothing was written to it, e.g. when stopping right after a new segment started
+            new File(getSegmentPath(index)).delete();
+            return;
+        }
+        final String path = getSegmentPath(index);
+        synchronized (this) {
+            mSegmentPaths.add(path);
+            mSegmentDurations.add(duration);
+        }
+        final SegmentListener listener = mSegmentListener;
+        if (listener != null) {
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onSegmentReady(path, index, duration);
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes the ffconcat manifest of the completed segments to the recording path.
+     */
+    private boolean writeManifest() {
+        StringBuilder manifest = new StringBuilder("ffconcat version 1.0\n");
+        synchronized (this) {
+            if (mSegmentPaths.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < mSegmentPaths.size(); i++) {
+                manifest.append("file '").append(new File(mSegmentPaths.get(i)).getName()).append("'\n");
+                manifest.append(String.format(Locale.US, "duration %.3f\n", mSegmentDurations.get(i)));
+            }
+        }
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(mPath), StandardCharsets.UTF_8);
+            writer.write(manifest.toString());
+            return true;
+        } catch (IOException e) {
+            ViroLog.error(TAG, "Failed to write the recording manifest: " + e.getMessage());
+            return false;
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+    }
+
+    private synchronized void onVideoDone() {
+        mVideoDone = true;
+        if (mAudioDone) {
+            finishLocked();
+        }
+    }
+
+    private synchronized void onAudioDone() {
+        mAudioDone = true;
+        if (mVideoDone) {
+            finishLocked();
+        }
+    }
+
+    private void onEncoderFailed() {
+        mCapturing = false;
+        synchronized (this) {
+            mFailed = true;
+            if (!mFinished) {
+                finishLocked();
+            }
+        }
+        fail(Error.UNKNOWN);
+    }
+
+    private void finishLocked() {
+        mFinished = true;
+        mCapturing = false;
+        if (mSegmentHandler != null) {
+            finishSegmentsLocked();
+            return;
+        }
+        boolean written = mMuxer.finish();
+        mFailed |= !written;
+        // Not from the encoder callbacks, stopping a codec from its own callback thread can deadlock
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                release();
+            }
+        });
+        notifyFinished();
+    }
+
+    /**
+     * Completes the last segment and writes the manifest on the segment thread, after the segments
+     * still waiting for their late audio.
+     */
+    private void finishSegmentsLocked() {
+        final ARRecordingMuxer last = mMuxer;
+        final int index = mSegmentIndex;
+        // The last frame is shown for one frame duration
+        final double duration = (mLastVideoUs - mSegmentStartUs) / 1000000.0 + 1.0 / mOptions.fps;
+        mSegmentHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                completeSegment(last, index, duration);
+                boolean written = writeManifest();
+                synchronized (ARVideoRecorder.this) {
+                    mFailed |= !written;
+                    notifyFinished();
+                }
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        release();
+                    }
+                });
+            }
+        }, SEGMENT_COMPLETION_DELAY_MS);
+    }
+
+    private synchronized void failToStart(Error error) {
+        mFinished = true;
+        mFailed = true;
+        fail(error);
+    }
+
+    private void notifyFinished() {
+        final FinishListener listener = mFinishListener;
+        if (listener == null) {
+            return;
+        }
+        mFinishListener = null;
+        if (mDroppedAudioSamples > 0) {
+            ViroLog.warn(TAG, "Dropped " + mDroppedAudioSamples
+                    + " audio samples that arrived after their segment was completed");
+        }
+        final boolean success = !mFailed;
+        final Stats stats = new Stats(mEncodedFrames, mDroppedFrames, mWidth, mHeight, mCodec,
+                new ArrayList<>(mSegmentPaths));
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onFinished(success, mPath, stats);
+            }
+        });
+    }
+
+    private void fail(final Error error) {
+        final ErrorListener listener = mErrorListener;
+        mErrorListener = null;
+        if (listener == null) {
+            return;
+        }
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onRecordingFailed(error);
+            }
+        });
+    }
+
+    private void release() {
+        if (mCaptureThread != null) {
+            // The frame belongs to the capture thread, and may still be the target of a copy
+            mCaptureHandler.post(mReleaseFrame);
+            mCaptureThread.quitSafely();
+        }
+        if (mAudioRecord != null) {
+            try {
+                mAudioRecord.stop();
+            } catch (IllegalStateException e) {
+                // Not recording
+            }
+            mAudioRecord.release();
+        }
+        if (mVideoEncoder != null) {
+            try {
+                mVideoEncoder.stop();
+            } catch (IllegalStateException e) {
+                // Not started or already failed
+            }
+            mVideoEncoder.release();
+        }
+        if (mAudioEncoder != null) {
+            try {
+                mAudioEncoder.stop();
+            } catch (IllegalStateException e) {
+                // Not started or already failed
+            }
+            mAudioEncoder.release();
+        }
+        if (mInputSurface != null) {
+            mInputSurface.release();
+        }
+        if (mEncoderThread != null) {
+            mEncoderThread.quitSafely();
+        }
+        if (mAudioThread != null) {
+            mAudioThread.quitSafely();
+        }
+        if (mSegmentThread != null) {
+            mSegmentThread.quitSafely();
+        }
+    }
+}
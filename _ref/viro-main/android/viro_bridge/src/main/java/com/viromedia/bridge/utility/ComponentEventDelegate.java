@@ -24,7 +24,6 @@ package com.viromedia.bridge.utility;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.viro.core.ARHitTestResult;
 import com.viro.core.ARPointCloud;
 import com.viro.core.internal.CameraCallback;
@@ -70,7 +69,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
         event.putBoolean("isHovering", isHovering);
         event.putArray("position", positionArray);
 
-        component.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(component.getReactContext(),
                 component.getId(),
                 ViroEvents.ON_HOVER,
                 event);
@@ -95,7 +94,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
         event.putInt("clickState", clickState.getTypeId());
         event.putArray("position", positionArray);
 
-        component.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(component.getReactContext(),
                 component.getId(),
                 ViroEvents.ON_CLICK,
                 event);
@@ -117,7 +116,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
         touchPos.pushDouble(touchPadPos[1]);
         event.putArray("touchPos", touchPos);
 
-        component.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(component.getReactContext(),
                 component.getId(),
                 ViroEvents.ON_TOUCH,
                 event);
@@ -133,7 +132,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
         WritableMap event = Arguments.createMap();
         event.putInt("source", source);
         event.putInt("swipeState", swipeState.getTypeId());
-        node.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(node.getReactContext(),
                 node.getId(),
                 ViroEvents.ON_SWIPE,
                 event);
@@ -153,7 +152,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
         scrollPos.pushDouble(y);
 
         event.putArray("scrollPos", scrollPos);
-        component.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(component.getReactContext(),
                 component.getId(),
                 ViroEvents.ON_SCROLL,
                 event);
@@ -174,7 +173,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
         dragToPos.pushDouble(z);
         event.putArray("dragToPos", dragToPos);
 
-        node.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(node.getReactContext(),
                 node.getId(),
                 ViroEvents.ON_DRAG,
                 event);
@@ -189,7 +188,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
 
         WritableMap event = Arguments.createMap();
         event.putInt("source", source);
-        node.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(node.getReactContext(),
                 node.getId(),
                 ViroEvents.ON_FUSE,
                 event);
@@ -207,7 +206,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
         event.putDouble("scaleFactor", scaleFactor);
         event.putInt("pinchState", pinchState.getTypeId());
 
-        node.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(node.getReactContext(),
                 node.getId(),
                 ViroEvents.ON_PINCH,
                 event);
@@ -253,7 +252,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
 
                     event.putArray("cameraOrientation", cameraOrientationArray);
 
-                    scene.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+                    ViroTelemetry.receiveEvent(scene.getReactContext(),
                             scene.getId(),
                             ViroEvents.ON_CAMERA_AR_HIT_TEST_VIRO,
                             event);
@@ -275,7 +274,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
             WritableMap event = Arguments.createMap();
             event.putMap("pointCloud", ARUtils.mapFromARPointCloud(arPointCloud));
 
-            arScene.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+            ViroTelemetry.receiveEvent(arScene.getReactContext(),
                     arScene.getId(),
                     ViroEvents.ON_AR_POINT_CLOUD_UPDATE,
                     event);
@@ -294,7 +293,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
         event.putDouble("rotationFactor", Math.toDegrees(rotationRadians));
         event.putInt("rotateState", rotateState.getTypeId());
 
-        node.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(node.getReactContext(),
                 node.getId(),
                 ViroEvents.ON_ROTATE,
                 event);
@@ -310,7 +309,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
         WritableMap event = Arguments.createMap();
         event.putInt("source", source);
         event.putInt("controllerStatus", controllerStatus.getTypeId());
-        node.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+        ViroTelemetry.receiveEvent(node.getReactContext(),
                 node.getId(),
                 ViroEvents.ON_CONTROLLER_STATUS,
                 event);
@@ -348,7 +347,7 @@ public class ComponentEventDelegate implements EventDelegate.EventDelegateCallba
 
             event.putArray("cameraTransform", cameraTransformArray);
 
-            scene.getReactContext().getJSModule(RCTEventEmitter.class).receiveEvent(
+            ViroTelemetry.receiveEvent(scene.getReactContext(),
                     scene.getId(),
                     ViroEvents.ON_CAMERA_TRANSFORM_UPDATE,
                     event);
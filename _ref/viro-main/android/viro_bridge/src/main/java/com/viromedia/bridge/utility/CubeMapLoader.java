@@ -0,0 +1,221 @@
+//  Copyright © 2016 Viro Media. All rights reserved.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining
+//  a copy of this software and associated documentation files (the
+//  "Software"), to deal in the Software without restriction, including
+//  without limitation the rights to use, copy, modify, merge, publish,
+//  distribute, sublicense, and/or sell copies of the Software, and to
+//  permit persons to whom the Software is furnished to do so, subject to
+//  the following conditions:
+//
+//  The above copyright notice and this permission notice shall be included
+//  in all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+//  EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+//  MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+//  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+//  CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+//  TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+//  SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.viromedia.bridge.utility;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.viro.core.Texture;
+import com.viro.core.internal.Image;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the six faces of a cube map concurrently and builds a cube {@link Texture} once all of
+ * them have arrived. Face sizes are validated as each face comes in, so a bad face fails the
+ * load without waiting for the rest.
+ *
+ * Finished textures are cached by format and face-URI set in a {@link SharedTextureCache}, and
+ * concurrent requests for the same set share a single download. Textures handed out by this class
+ * are reference counted: callers must give them back with {@link #release(Texture)} instead of
+ * disposing them. Released textures stay cached until more than {@link #MAX_UNUSED_TEXTURES}
+ * unused ones accumulate.
+ */
+public class CubeMapLoader {
+    private static final String URI_KEY = "uri";
+    private static final String[] FACE_KEYS = {"px", "nx", "py", "ny", "pz", "nz"};
+    private static final int MAX_UNUSED_TEXTURES = 4;
+
+    private static final SharedTextureCache sCache =
+            new SharedTextureCache(CubeMapLoader.class, MAX_UNUSED_TEXTURES);
+    private static final Map<Texture.Format, ImageDownloader> sDownloaders =
+            new EnumMap<>(Texture.Format.class);
+
+    public interface Listener extends SharedTextureCache.Listener {
+    }
+
+    /**
+     * Fetches the cube map described by the given map (with px, nx, py, ny, pz and nz keys, each
+     * holding a source with a "uri") and notifies the listener from a background thread, or
+     * immediately if the texture is already cached.
+     */
+    public static void loadAsync(Context context, ReadableMap faces, Texture.Format format,
+                                 Listener listener) {
+        Uri[] uris = parseFaceUris(context, faces);
+        String key = getCacheKey(uris, format);
+
+        if (!sCache.request(key, listener)) {
+            return;
+        }
+
+        CubeMapRequest request = new CubeMapRequest(key, format);
+        ImageDownloader downloader = getDownloader(context, format);
+        for (int i = 0; i < FACE_KEYS.length; i++) {
+            downloader.getImageAsync(uris[i], new FaceDownloadListener(request, i));
+        }
+    }
+
+    /**
+     * Gives back a texture obtained from this class. The texture is disposed once it is no longer
+     * referenced and has aged out of the cache.
+     */
+    public static void release(Texture texture) {
+        sCache.release(texture);
+    }
+
+    private static Uri[] parseFaceUris(Context context, ReadableMap faces) {
+        Uri[] uris = new Uri[FACE_KEYS.length];
+        for (int i = 0; i < FACE_KEYS.length; i++) {
+            String face = FACE_KEYS[i];
+            if (!faces.hasKey(face) || faces.getType(face) != ReadableType.Map
+                    || !faces.getMap(face).hasKey(URI_KEY)) {
+                throw new IllegalArgumentException("Error creating cube map: ensure the nx, px, ny, py, nz, and pz params are passed in the body of the cube map texture");
+            }
+            uris[i] = Helper.parseUri(faces.getMap(face).getString(URI_KEY), context);
+        }
+        return uris;
+    }
+
+    private static String getCacheKey(Uri[] uris, Texture.Format format) {
+        StringBuilder builder = new StringBuilder(format.name());
+        for (Uri uri : uris) {
+            builder.append('|').append(uri.toString());
+        }
+        return builder.toString();
+    }
+
+    private static synchronized ImageDownloader getDownloader(Context context, Texture.Format format) {
+        ImageDownloader downloader = sDownloaders.get(format);
+        if (downloader == null) {
+            // One delivery thread per face, so the bitmap copies for a cube map run side by side.
+            downloader = new ImageDownloader(context.getApplicationContext(), FACE_KEYS.length);
+            downloader.setTextureFormat(format);
+            sDownloaders.put(format, downloader);
+        }
+        return downloader;
+    }
+
+    /**
+     * State shared by the six face downloads of a single cube map.
+     */
+    private static class CubeMapRequest {
+        private final String mKey;
+        private final Texture.Format mFormat;
+        private final Image[] mImages = new Image[FACE_KEYS.length];
+        private final AtomicInteger mRemainingFaces = new AtomicInteger(FACE_KEYS.length);
+        private int mFaceSize = -1;
+        private boolean mFailed = false;
+
+        CubeMapRequest(String key, Texture.Format format) {
+            mKey = key;
+            mFormat = format;
+        }
+
+        /**
+         * Records the given face, returning an error message if it can't be part of this cube map.
+         */
+        synchronized String addFace(int index, Bitmap bitmap) {
+            if (mFailed) {
+                return null;
+            }
+            if (bitmap == null) {
+                return fail("Could not download cube map face " + FACE_KEYS[index]);
+            }
+
+            int width = bitmap.getWidth();
+            int height = bitmap.getHeight();
+            if (mFaceSize < 0) {
+                mFaceSize = width;
+            }
+            if (width != height || width != mFaceSize) {
+                return fail("Error loading cube map. Cube map must be square and uniformly sized, face "
+                        + FACE_KEYS[index] + " is (" + width + "," + height + ")");
+            }
+
+            mImages[index] = new Image(bitmap, mFormat);
+            return null;
+        }
+
+        synchronized String fail(String error) {
+            if (mFailed) {
+                return null;
+            }
+            mFailed = true;
+            for (int i = 0; i < mImages.length; i++) {
+                if (mImages[i] != null) {
+                    mImages[i].destroy();
+                    mImages[i] = null;
+                }
+            }
+            return error;
+        }
+
+        synchronized boolean hasFailed() {
+            return mFailed;
+        }
+    }
+
+    private static class FaceDownloadListener implements ImageDownloadListener {
+        private final CubeMapRequest mRequest;
+        private final int mFaceIndex;
+
+        FaceDownloadListener(CubeMapRequest request, int faceIndex) {
+            mRequest = request;
+            mFaceIndex = faceIndex;
+        }
+
+        @Override
+        public boolean isValid() {
+            return !mRequest.hasFailed();
+        }
+
+        @Override
+        public void completed(Bitmap result) {
+            String error = mRequest.addFace(mFaceIndex, result);
+            if (error != null) {
+                sCache.fail(mRequest.mKey, error);
+                return;
+            }
+
+            if (mRequest.mRemainingFaces.decrementAndGet() == 0 && !mRequest.hasFailed()) {
+                Image[] images = mRequest.mImages;
+                Texture texture = new Texture(images[0], images[1], images[2], images[3],
+                        images[4], images[5]);
+                sCache.complete(mRequest.mKey, texture, images);
+            }
+        }
+
+        @Override
+        public void failed(String error) {
+            String message = mRequest.fail("Could not download cube map face " + FACE_KEYS[mFaceIndex]
+                    + ": " + error);
+            if (message != null) {
+                sCache.fail(mRequest.mKey, message);
+            }
+        }
+    }
+}
@@ -69,10 +69,17 @@ public class ImageDownloader {
     }
 
     public ImageDownloader(Context context) {
+        this(context, 1);
+    }
+
+    /**
+     * Creates a downloader whose results are delivered on a pool of the given size, so that
+     * several async fetches issued together can be completed (and copied) concurrently.
+     */
+    public ImageDownloader(Context context, int numberOfThreads) {
         mContext = context;
         mImageMap = new ConcurrentHashMap<>();
-        mExecutorSupplier = new DefaultExecutorSupplier(1);
-
+        mExecutorSupplier = new DefaultExecutorSupplier(numberOfThreads);
     }
 
     /**
@@ -131,6 +138,21 @@ public class ImageDownloader {
         getImage(Helper.parseUri(map.getString(URI_KEY), mContext), null, listener);
     }
 
+    /**
+     * This method fetches an image asynchrously
+     *
+     * @param uri a URI representing the location of the image to fetch.
+     * @param listener object that will be called once the image is fetched.
+     */
+    public void getImageAsync(Uri uri, ImageDownloadListener listener) {
+        if (listener == null) {
+            ViroLog.warn(TAG, "The given ImageDownloadListener is null. Doing nothing.");
+            return;
+        }
+
+        getImage(uri, null, listener);
+    }
+
     private void getImage(Uri uri, final CountDownLatch latch, final ImageDownloadListener listener) {
         ImagePipeline imagePipeline = Fresco.getImagePipeline();
         ImageRequest request = ImageRequestBuilder.newBuilderWithSource(uri).build();
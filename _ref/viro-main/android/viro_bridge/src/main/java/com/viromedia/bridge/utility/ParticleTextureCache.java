@@ -0,0 +1,128 @@
+//  Copyright © 2016 Viro Media. All rights reserved.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining
+//  a copy of this software and associated documentation files (the
+//  "Software"), to deal in the Software without restriction, including
+//  without limitation the rights to use, copy, modify, merge, publish,
+//  distribute, sublicense, and/or sell copies of the Software, and to
+//  permit persons to whom the Software is furnished to do so, subject to
+//  the following conditions:
+//
+//  The above copyright notice and this permission notice shall be included
+//  in all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+//  EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+//  MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+//  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+//  CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+//  TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+//  SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.viromedia.bridge.utility;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.viro.core.Texture;
+import com.viro.core.internal.Image;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Refcounted cache of the textures used by particle emitters, keyed by image source and texture
+ * format. Effects that are spawned over and over (explosions, pickups, trails) all use the same
+ * handful of images, so every emitter showing a given image shares one download and one texture.
+ *
+ * Textures handed out by this class must be given back with {@link #release(Texture)} instead of
+ * being disposed. Released textures stay cached until more than {@link #MAX_UNUSED_TEXTURES}
+ * unused ones accumulate, so a respawned effect finds its texture still uploaded.
+ */
+public class ParticleTextureCache {
+    private static final String URI_KEY = "uri";
+    private static final int MAX_UNUSED_TEXTURES = 8;
+
+    private static final SharedTextureCache sCache =
+            new SharedTextureCache(ParticleTextureCache.class, MAX_UNUSED_TEXTURES);
+    private static final Map<Texture.Format, ImageDownloader> sDownloaders =
+            new EnumMap<>(Texture.Format.class);
+
+    public interface Listener extends SharedTextureCache.Listener {
+    }
+
+    /**
+     * Fetches the texture for the given image source (a map with a "uri" key) and notifies the
+     * listener from a background thread, or immediately if the texture is already cached.
+     */
+    public static void loadAsync(Context context, ReadableMap source, Texture.Format format,
+                                 Listener listener) {
+        if (!source.hasKey(URI_KEY)) {
+            throw new IllegalArgumentException("Unable to find \"uri\" key in given source map.");
+        }
+        Uri uri = Helper.parseUri(source.getString(URI_KEY), context);
+        String key = format.name() + "|" + uri.toString();
+
+        if (sCache.request(key, listener)) {
+            getDownloader(context, format).getImageAsync(uri, new TextureDownloadListener(key, format));
+        }
+    }
+
+    /**
+     * Takes an additional reference on a texture obtained from this class.
+     */
+    public static void retain(Texture texture) {
+        sCache.retain(texture);
+    }
+
+    /**
+     * Gives back a texture obtained from this class. The texture is disposed once it is no longer
+     * referenced and has aged out of the cache.
+     */
+    public static void release(Texture texture) {
+        sCache.release(texture);
+    }
+
+    private static synchronized ImageDownloader getDownloader(Context context, Texture.Format format) {
+        ImageDownloader downloader = sDownloaders.get(format);
+        if (downloader == null) {
+            downloader = new ImageDownloader(context.getApplicationContext());
+            downloader.setTextureFormat(format);
+            sDownloaders.put(format, downloader);
+        }
+        return downloader;
+    }
+
+    private static class TextureDownloadListener implements ImageDownloadListener {
+        private final String mKey;
+        private final Texture.Format mFormat;
+
+        TextureDownloadListener(String key, Texture.Format format) {
+            mKey = key;
+            mFormat = format;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public void completed(Bitmap result) {
+            if (result == null) {
+                sCache.fail(mKey, "Could not download particle image " + mKey);
+                return;
+            }
+            Image image = new Image(result, mFormat);
+            sCache.complete(mKey, new Texture(image, true, false, null), image);
+        }
+
+        @Override
+        public void failed(String error) {
+            sCache.fail(mKey, error);
+        }
+    }
+}
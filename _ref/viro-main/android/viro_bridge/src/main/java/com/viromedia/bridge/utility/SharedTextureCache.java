@@ -0,0 +1,224 @@
+//  Copyright © 2017 Viro Media. All rights reserved.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining
+//  a copy of this software and associated documentation files (the
+//  "Software"), to deal in the Software without restriction, including
+//  without limitation the rights to use, copy, modify, merge, publish,
+//  distribute, sublicense, and/or sell copies of the Software, and to
+//  permit persons to whom the Software is furnished to do so, subject to
+//  the following conditions:
+//
+//  The above copyright notice and this permission notice shall be included
+//  in all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+//  EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+//  MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+//  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+//  CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+//  TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+//  SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+package com.viromedia.bridge.utility;
+
+import com.viro.core.Texture;
+import com.viro.core.internal.Image;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reference counted cache of textures built from downloaded images, shared by
+ * {@link CubeMapLoader} and {@link ParticleTextureCache}. Concurrent requests for the same key
+ * share a single load, which the first requester performs and reports with
+ * {@link #complete(String, Texture, Image...)} or {@link #fail(String, String)}.
+ *
+ * Textures handed out must be given back with {@link #release(Texture)} instead of being
+ * disposed. Released textures stay cached until more than the configured number of unused ones
+ * accumulate, and are then disposed together with their images.
+ */
+public class SharedTextureCache {
+
+    public interface Listener {
+        /**
+         * Whether or not the listener still wants the texture
+         */
+        public boolean isValid();
+
+        /**
+         * Hands over a reference to the texture, which must be given back to the class it was
+         * loaded through, also when the listener is no longer valid by now.
+         */
+        public void completed(Texture texture);
+        public void failed(String error);
+    }
+
+    private final String mTag;
+    private final String mOwnerName;
+    private final int mMaxUnusedTextures;
+
+    // Access ordered, so iteration visits the least recently used textures first.
+    private final LinkedHashMap<String, Entry> mTextures = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Texture, Entry> mEntriesByTexture = new IdentityHashMap<>();
+    private final Map<String, List<Listener>> mPendingListeners = new HashMap<>();
+
+    SharedTextureCache(Class owner, int maxUnusedTextures) {
+        mTag = ViroLog.getTag(owner);
+        mOwnerName = owner.getSimpleName();
+        mMaxUnusedTextures = maxUnusedTextures;
+    }
+
+    /**
+     * Hands the cached texture for the key to the listener right away, or queues the listener
+     * until the texture is loaded. Returns true if no load was pending yet, in which case the
+     * caller has to start it.
+     */
+    boolean request(String key, Listener listener) {
+        Texture cachedTexture;
+        synchronized (this) {
+            Entry entry = mTextures.get(key);
+            if (entry == null) {
+                List<Listener> listeners = mPendingListeners.get(key);
+                boolean started = listeners == null;
+                if (started) {
+                    listeners = new ArrayList<>();
+                    mPendingListeners.put(key, listeners);
+                }
+                listeners.add(listener);
+                return started;
+            }
+            entry.mRefCount++;
+            cachedTexture = entry.mTexture;
+        }
+
+        listener.completed(cachedTexture);
+        return false;
+    }
+
+    /**
+     * Caches the loaded texture, with the images it was built from, and hands it to the listeners
+     * waiting for it.
+     */
+    void complete(String key, Texture texture, Image... images) {
+        List<Listener> listeners;
+        synchronized (this) {
+            // Every listener counted here is handed the texture, even if it stops being valid in
+            // the meantime: it then gives the texture back through release()
+            listeners = new ArrayList<>();
+            List<Listener> pending = mPendingListeners.remove(key);
+            if (pending != null) {
+                for (Listener listener : pending) {
+                    if (listener.isValid()) {
+                        listeners.add(listener);
+                    }
+                }
+            }
+
+            Entry entry = new Entry(texture, images);
+            entry.mRefCount = listeners.size();
+            mTextures.put(key, entry);
+            mEntriesByTexture.put(texture, entry);
+            if (entry.mRefCount == 0) {
+                trimUnusedTextures();
+            }
+        }
+
+        for (Listener listener : listeners) {
+            listener.completed(texture);
+        }
+    }
+
+    void fail(String key, String error) {
+        List<Listener> listeners;
+        synchronized (this) {
+            listeners = mPendingListeners.remove(key);
+        }
+
+        ViroLog.error(mTag, error);
+        if (listeners == null) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            if (listener.isValid()) {
+                listener.failed(error);
+            }
+        }
+    }
+
+    /**
+     * Takes an additional reference on a texture obtained from this cache.
+     */
+    synchronized void retain(Texture texture) {
+        Entry entry = mEntriesByTexture.get(texture);
+        if (entry == null) {
+            throw new IllegalArgumentException("Retaining a texture that was not loaded by " + mOwnerName + ".");
+        }
+        entry.mRefCount++;
+    }
+
+    /**
+     * Gives back a texture obtained from this cache. The texture is disposed once it is no longer
+     * referenced and has aged out of the cache.
+     */
+    synchronized void release(Texture texture) {
+        if (texture == null) {
+            return;
+        }
+
+        Entry entry = mEntriesByTexture.get(texture);
+        if (entry == null) {
+            ViroLog.warn(mTag, "Releasing a texture that was not loaded by " + mOwnerName + ".");
+            texture.dispose();
+            return;
+        }
+
+        entry.mRefCount--;
+        if (entry.mRefCount <= 0) {
+            entry.mRefCount = 0;
+            trimUnusedTextures();
+        }
+    }
+
+    private void trimUnusedTextures() {
+        int unused = 0;
+        for (Entry entry : mTextures.values()) {
+            if (entry.mRefCount == 0) {
+                unused++;
+            }
+        }
+
+        Iterator<Entry> iterator = mTextures.values().iterator();
+        while (unused > mMaxUnusedTextures && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.mRefCount == 0) {
+                iterator.remove();
+                mEntriesByTexture.remove(entry.mTexture);
+                entry.dispose();
+                unused--;
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Texture mTexture;
+        private final Image[] mImages;
+        private int mRefCount = 0;
+
+        Entry(Texture texture, Image[] images) {
+            mTexture = texture;
+            mImages = images;
+        }
+
+        void dispose() {
+            mTexture.dispose();
+            for (Image image : mImages) {
+                image.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,467 @@
+//  Copyright © 2016 Viro Media. All rights reserved.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining
+//  a copy of this software and associated documentation files (the
+//  "Software"), to deal in the Software without restriction, including
+//  without limitation the rights to use, copy, modify, merge, publish,
+//  distribute, sublicense, and/or sell copies of the Software, and to
+//  permit persons to whom the Software is furnished to do so, subject to
+//  the following conditions:
+//
+//  The above copyright notice and this permission notice shall be included
+//  in all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+//  EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+//  MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+//  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+//  CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+//  TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+//  SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+
+package com.viromedia.bridge.utility;
+
+import android.content.Context;
+import android.os.Debug;
+import android.view.Display;
+import android.view.WindowManager;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+import com.viro.core.FrameListener;
+import com.viro.core.ViroView;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Production-safe runtime telemetry for the bridge: frame timing, dropped frames, memory, live
+ * component counts and the rate of events sent to JS per {@link ViroEvents} type.
+ *
+ * Frame times are written by the render thread into a fixed-size ring buffer without locking;
+ * readers copy the buffer and discard any slot the writer lapped while they were copying. Frame
+ * sampling is off until {@link #setEnabled(boolean)} is called, so the only cost paid by default
+ * is a counter increment per event and per component.
+ *
+ * The GL renderer does not expose draw call or GPU memory counters to Java, so memory is reported
+ * as Java heap, native heap and the graphics share of the process' memory.
+ */
+public class ViroTelemetry {
+    private static final String TAG = ViroLog.getTag(ViroTelemetry.class);
+
+    // Must be a power of two. At 60fps this holds the last ~17 seconds of frames.
+    private static final int FRAME_BUFFER_SIZE = 1024;
+    private static final int FRAME_BUFFER_MASK = FRAME_BUFFER_SIZE - 1;
+
+    // Gaps longer than this are the renderer pausing (e.g. app backgrounded), not slow frames.
+    private static final long MAX_FRAME_INTERVAL_NS = TimeUnit.SECONDS.toNanos(2);
+
+    // A frame counts as dropped when it takes longer than this many refresh intervals.
+    private static final float DROPPED_FRAME_THRESHOLD = 1.5f;
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+
+    private static final int TRACE_MAGIC = 0x56525454; // "VRTT"
+    private static final int TRACE_VERSION = 1;
+    private static final long TRACE_FLUSH_INTERVAL_MS = 1000;
+    private static final long DEFAULT_TRACE_MAX_BYTES = 4 * 1024 * 1024;
+    private static final String TRACE_FILE_NAME = "viro_telemetry.trace";
+
+    private static final long[] sFrameEndNanos = new long[FRAME_BUFFER_SIZE];
+    private static final long[] sFrameDurationNanos = new long[FRAME_BUFFER_SIZE];
+    private static final AtomicLong sFrameSequence = new AtomicLong();
+
+    // Only written by the render thread.
+    private static volatile long sDroppedFrames = 0;
+
+    // Frame sequence and dropped frame total at the last reset, so that reset never has to race
+    // the render thread for the counters themselves.
+    private static volatile long sResetSequence = 0;
+    private static volatile long sResetDroppedFrames = 0;
+    private static volatile float sRefreshRate = DEFAULT_REFRESH_RATE;
+    private static volatile boolean sEnabled = false;
+
+    private static final ConcurrentMap<String, AtomicLong> sEventCounts = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, AtomicInteger> sLiveObjects = new ConcurrentHashMap<>();
+    private static final FrameSampler sFrameSampler = new FrameSampler();
+
+    // Used to turn event counts into rates between consecutive snapshots.
+    private static final Map<String, Long> sLastEventCounts = new ConcurrentHashMap<>();
+    private static long sLastSnapshotNanos = System.nanoTime();
+
+    private static ScheduledExecutorService sTraceExecutor;
+    private static ScheduledFuture<?> sTraceTask;
+    private static TraceWriter sTraceWriter;
+
+    /**
+     * Starts sampling frames from the given view. Sampling only happens while telemetry is enabled.
+     */
+    public static void attach(ViroView view) {
+        view.setFrameListener(sFrameSampler);
+
+        WindowManager windowManager = (WindowManager) view.getContext()
+                .getSystemService(Context.WINDOW_SERVICE);
+        Display display = windowManager != null ? windowManager.getDefaultDisplay() : null;
+        if (display != null && display.getRefreshRate() > 0) {
+            sRefreshRate = display.getRefreshRate();
+        }
+        sFrameSampler.restart();
+    }
+
+    public static void setEnabled(boolean enabled) {
+        if (enabled && !sEnabled) {
+            sFrameSampler.restart();
+        }
+        sEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Sends the given event to JS and counts it against its event name.
+     */
+    public static void receiveEvent(ReactContext context, int targetTag, String eventName,
+                                    WritableMap event) {
+        AtomicLong count = sEventCounts.get(eventName);
+        if (count == null) {
+            AtomicLong created = new AtomicLong();
+            count = sEventCounts.putIfAbsent(eventName, created);
+            count = count != null ? count : created;
+        }
+        count.incrementAndGet();
+        context.getJSModule(RCTEventEmitter.class).receiveEvent(targetTag, eventName, event);
+    }
+
+    public static void objectCreated(Class<?> type) {
+        String name = type.getSimpleName();
+        AtomicInteger count = sLiveObjects.get(name);
+        if (count == null) {
+            AtomicInteger created = new AtomicInteger();
+            count = sLiveObjects.putIfAbsent(name, created);
+            count = count != null ? count : created;
+        }
+        count.incrementAndGet();
+    }
+
+    public static void objectDestroyed(Class<?> type) {
+        AtomicInteger count = sLiveObjects.get(type.getSimpleName());
+        if (count != null) {
+            count.decrementAndGet();
+        }
+    }
+
+    /**
+     * Clears the frame history, dropped frame total and event counts. Live object counts are kept
+     * since they describe the current state rather than a history.
+     */
+    public static synchronized void reset() {
+        sResetSequence = sFrameSequence.get();
+        sResetDroppedFrames = sDroppedFrames;
+        sEventCounts.clear();
+        sLastEventCounts.clear();
+        sLastSnapshotNanos = System.nanoTime();
+        sFrameSampler.restart();
+    }
+
+    /**
+     * Builds a snapshot of the current telemetry. Event rates are computed over the time since the
+     * previous snapshot.
+     */
+    public static synchronized WritableMap getSnapshot() {
+        WritableMap snapshot = Arguments.createMap();
+        snapshot.putBoolean("enabled", sEnabled);
+        snapshot.putMap("frames", getFrameStats());
+        snapshot.putMap("memory", getMemoryStats());
+
+        WritableMap objects = Arguments.createMap();
+        for (Map.Entry<String, AtomicInteger> entry : sLiveObjects.entrySet()) {
+            objects.putInt(entry.getKey(), entry.getValue().get());
+        }
+        snapshot.putMap("liveObjects", objects);
+
+        long now = System.nanoTime();
+        double elapsedSeconds = Math.max((now - sLastSnapshotNanos) / 1e9, 1e-3);
+        sLastSnapshotNanos = now;
+
+        WritableMap events = Arguments.createMap();
+        for (Map.Entry<String, AtomicLong> entry : sEventCounts.entrySet()) {
+            long count = entry.getValue().get();
+            Long previous = sLastEventCounts.put(entry.getKey(), count);
+            long delta = count - (previous != null ? previous : 0);
+
+            WritableMap eventStats = Arguments.createMap();
+            eventStats.putDouble("count", count);
+            eventStats.putDouble("perSecond", delta / elapsedSeconds);
+            events.putMap(entry.getKey(), eventStats);
+        }
+        snapshot.putMap("events", events);
+
+        File traceFile = getTraceFile();
+        snapshot.putString("traceFile", traceFile != null ? traceFile.getAbsolutePath() : null);
+        return snapshot;
+    }
+
+    private static WritableMap getFrameStats() {
+        long[] durations = new long[FRAME_BUFFER_SIZE];
+        long[] ends = new long[FRAME_BUFFER_SIZE];
+        int count = copyFrames(sResetSequence, durations, ends, null);
+
+        WritableMap stats = Arguments.createMap();
+        stats.putInt("sampleCount", count);
+        stats.putDouble("droppedFrames", sDroppedFrames - sResetDroppedFrames);
+        stats.putDouble("refreshRate", sRefreshRate);
+        if (count == 0) {
+            return stats;
+        }
+
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += durations[i];
+        }
+        Arrays.sort(durations, 0, count);
+
+        stats.putDouble("fps", count / (total / 1e9));
+        stats.putDouble("frameTimeMeanMs", total / 1e6 / count);
+        stats.putDouble("frameTimeP50Ms", percentile(durations, count, 0.50));
+        stats.putDouble("frameTimeP90Ms", percentile(durations, count, 0.90));
+        stats.putDouble("frameTimeP95Ms", percentile(durations, count, 0.95));
+        stats.putDouble("frameTimeP99Ms", percentile(durations, count, 0.99));
+        stats.putDouble("frameTimeMaxMs", durations[count - 1] / 1e6);
+        return stats;
+    }
+
+    private static double percentile(long[] sorted, int count, double percentile) {
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1e6;
+    }
+
+    private static WritableMap getMemoryStats() {
+        Runtime runtime = Runtime.getRuntime();
+        Debug.MemoryInfo memoryInfo = new Debug.MemoryInfo();
+        Debug.getMemoryInfo(memoryInfo);
+
+        WritableMap memory = Arguments.createMap();
+        memory.putDouble("javaHeapBytes", runtime.totalMemory() - runtime.freeMemory());
+        memory.putDouble("nativeHeapBytes", Debug.getNativeHeapAllocatedSize());
+        memory.putDouble("graphicsBytes", getMemoryStatKb(memoryInfo, "summary.graphics") * 1024.0);
+        memory.putDouble("totalPssBytes", memoryInfo.getTotalPss() * 1024.0);
+        return memory;
+    }
+
+    private static long getMemoryStatKb(Debug.MemoryInfo memoryInfo, String stat) {
+        try {
+            String value = memoryInfo.getMemoryStat(stat);
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Copies frames starting at the given sequence number into the given arrays, oldest first.
+     * Frames the writer overwrote during the copy are dropped. Returns the number of frames
+     * copied, and the sequence number to continue from in nextSequence[0] if given.
+     */
+    private static int copyFrames(long fromSequence, long[] durations, long[] ends, long[] nextSequence) {
+        long end = sFrameSequence.get();
+        long start = Math.max(fromSequence, end - FRAME_BUFFER_SIZE);
+        int count = 0;
+        for (long seq = start; seq < end; seq++) {
+            int index = (int) (seq & FRAME_BUFFER_MASK);
+            durations[count] = sFrameDurationNanos[index];
+            ends[count] = sFrameEndNanos[index];
+            count++;
+        }
+
+        // The writer may have overwritten anything up to one buffer length behind its current
+        // position mid-copy, including the slot it is writing now (that of oldestValid - 1),
+        // before publishing it.
+        long oldestValid = sFrameSequence.get() - FRAME_BUFFER_SIZE + 1;
+        int skip = (int) Math.max(0, Math.min(count, oldestValid - start));
+        if (skip > 0) {
+            System.arraycopy(durations, skip, durations, 0, count - skip);
+            System.arraycopy(ends, skip, ends, 0, count - skip);
+            count -= skip;
+        }
+
+        if (nextSequence != null) {
+            nextSequence[0] = end;
+        }
+        return count;
+    }
+
+    /**
+     * Starts writing every sampled frame to a rolling binary trace file in the app's cache
+     * directory. Once the file exceeds maxBytes it is moved aside (replacing the previous one) and
+     * a new file is started, so at most two files' worth of history is kept.
+     *
+     * Each file starts with the int magic "VRTT" and an int version, followed by one record per
+     * frame: the frame end time as a long (System.nanoTime) and the frame duration as an int in
+     * microseconds. All values are big endian.
+     */
+    public static synchronized void startTrace(Context context, long maxBytes) {
+        stopTrace();
+
+        File file = new File(context.getCacheDir(), TRACE_FILE_NAME);
+        sTraceWriter = new TraceWriter(file, maxBytes > 0 ? maxBytes : DEFAULT_TRACE_MAX_BYTES);
+        if (sTraceExecutor == null) {
+            sTraceExecutor = Executors.newSingleThreadScheduledExecutor();
+        }
+        final TraceWriter writer = sTraceWriter;
+        sTraceTask = sTraceExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                writer.drain();
+            }
+        }, TRACE_FLUSH_INTERVAL_MS, TRACE_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stopTrace() {
+        if (sTraceTask != null) {
+            sTraceTask.cancel(false);
+            sTraceTask = null;
+        }
+        if (sTraceWriter != null) {
+            final TraceWriter writer = sTraceWriter;
+            sTraceExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    writer.drain();
+                    writer.close();
+                }
+            });
+            sTraceWriter = null;
+        }
+    }
+
+    private static synchronized File getTraceFile() {
+        return sTraceWriter != null ? sTraceWriter.mFile : null;
+    }
+
+    private static class TraceWriter {
+        private final File mFile;
+        private final long mMaxBytes;
+        private final long[] mDurations = new long[FRAME_BUFFER_SIZE];
+        private final long[] mEnds = new long[FRAME_BUFFER_SIZE];
+        private final long[] mNextSequence = new long[1];
+        private DataOutputStream mStream;
+        private long mNextFrame;
+        private long mBytesWritten;
+
+        TraceWriter(File file, long maxBytes) {
+            mFile = file;
+            mMaxBytes = maxBytes;
+            mNextFrame = sFrameSequence.get();
+        }
+
+        void drain() {
+            int count = copyFrames(mNextFrame, mDurations, mEnds, mNextSequence);
+            mNextFrame = mNextSequence[0];
+            if (count == 0) {
+                return;
+            }
+
+            try {
+                for (int i = 0; i < count; i++) {
+                    if (mStream == null || mBytesWritten >= mMaxBytes) {
+                        roll();
+                    }
+                    mStream.writeLong(mEnds[i]);
+                    mStream.writeInt((int) (mDurations[i] / 1000));
+                    mBytesWritten += 12;
+                }
+                mStream.flush();
+            } catch (IOException e) {
+                ViroLog.error(TAG, "Unable to write telemetry trace: " + e.getMessage());
+                close();
+            }
+        }
+
+        private void roll() throws IOException {
+            close();
+            if (mFile.exists()) {
+                File previous = new File(mFile.getPath() + ".1");
+                if (!mFile.renameTo(previous)) {
+                    ViroLog.warn(TAG, "Unable to roll telemetry trace file " + mFile);
+                }
+            }
+
+            mStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(mFile)));
+            mStream.writeInt(TRACE_MAGIC);
+            mStream.writeInt(TRACE_VERSION);
+            mBytesWritten = 8;
+        }
+
+        void close() {
+            if (mStream == null) {
+                return;
+            }
+            try {
+                mStream.close();
+            } catch (IOException e) {
+                ViroLog.warn(TAG, "Unable to close telemetry trace: " + e.getMessage());
+            }
+            mStream = null;
+        }
+    }
+
+    /**
+     * Records the interval between consecutive frames. Only ever invoked on the render thread.
+     */
+    private static class FrameSampler implements FrameListener {
+        private volatile boolean mRestart = true;
+        private long mLastFrameNanos;
+
+        void restart() {
+            mRestart = true;
+        }
+
+        @Override
+        public void onDrawFrame() {
+            if (!sEnabled) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            if (mRestart) {
+                mRestart = false;
+                mLastFrameNanos = now;
+                return;
+            }
+
+            long duration = now - mLastFrameNanos;
+            mLastFrameNanos = now;
+            if (duration > MAX_FRAME_INTERVAL_NS) {
+                return;
+            }
+
+            long refreshIntervalNanos = (long) (1e9 / sRefreshRate);
+            if (duration > refreshIntervalNanos * DROPPED_FRAME_THRESHOLD) {
+                sDroppedFrames += Math.round((double) duration / refreshIntervalNanos) - 1;
+            }
+
+            long sequence = sFrameSequence.get();
+            int index = (int) (sequence & FRAME_BUFFER_MASK);
+            sFrameDurationNanos[index] = duration;
+            sFrameEndNanos[index] = now;
+            sFrameSequence.lazySet(sequence + 1);
+        }
+    }
+}
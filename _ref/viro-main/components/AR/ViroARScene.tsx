@@ -18,6 +18,7 @@ import {
 import resolveAssetSource from "react-native/Libraries/Image/resolveAssetSource";
 import {
   ViroAmbientLightInfo,
+  ViroARUpdateOptions,
   ViroAmbientLightUpdateEvent,
   ViroARAnchorFoundEvent,
   ViroARAnchorRemovedEvent,
@@ -69,6 +70,11 @@ type Props = ViroCommonProps & {
   ) => void;
   onPlatformUpdate?: (platformInfoViro: ViroPlatformInfo) => void;
   onAmbientLightUpdate?: (update: ViroAmbientLightInfo) => void;
+  /**
+   * Rate limit, smoothing and thresholds of onAmbientLightUpdate and
+   * onTrackingUpdated. Android only.
+   */
+  arUpdateOptions?: ViroARUpdateOptions;
   /**
    * Describes the acoustic properties of the room around the user
    */
@@ -14,7 +14,9 @@
 
 import * as React from "react";
 import {
+  EmitterSubscription,
   findNodeHandle,
+  NativeEventEmitter,
   NativeModules,
   requireNativeComponent,
   StyleSheet,
@@ -37,6 +39,10 @@ import {
   ViroSemanticLabelFractionsResult,
   ViroSemanticLabelFractionResult,
   ViroSemanticLabel,
+  ViroVideoRecordingOptions,
+  ViroVideoRecordingResult,
+  ViroVideoSegmentReadyEvent,
+  ViroAnchoringMetricsResult,
 } from "../Types/ViroEvents";
 import {
   Viro3DPoint,
@@ -176,6 +182,7 @@ type State = {
  */
 export class ViroARSceneNavigator extends React.Component<Props, State> {
   _component: ViroNativeRef = null;
+  _segmentSubscription: EmitterSubscription | null = null;
 
   constructor(props: Props) {
     super(props);
@@ -203,13 +210,48 @@ export class ViroARSceneNavigator extends React.Component<Props, State> {
    * @param fileName - name of the file (without extension)
    * @param saveToCameraRoll - whether or not the file should also be saved to the camera roll
    * @param onError - callback function that accepts an errorCode.
+   * @param options - encoder options (resolution scale, bitrate, fps, keyframe
+   * interval, codec). Android only; the standard recorder is used without them.
    */
   _startVideoRecording = (
     fileName: string,
     saveToCameraRoll: boolean,
     // TODO: What are the errorCodes? make a type for this
-    onError: (errorCode: number) => void
+    onError: (errorCode: number) => void,
+    options?: ViroVideoRecordingOptions
   ) => {
+    if (
+      options &&
+      ViroARSceneNavigatorModule.startVideoRecordingWithOptions !== undefined
+    ) {
+      const { onSegmentReady, ...encoderOptions } = options;
+      const tag = findNodeHandle(this);
+      this._removeSegmentSubscription();
+      if (onSegmentReady) {
+        this._segmentSubscription = new NativeEventEmitter(
+          ViroARSceneNavigatorModule
+        ).addListener(
+          "ViroARVideoSegmentReady",
+          (event: ViroVideoSegmentReadyEvent & { reactTag: number }) => {
+            if (event.reactTag === tag) {
+              onSegmentReady({
+                url: event.url,
+                index: event.index,
+                duration: event.duration,
+              });
+            }
+          }
+        );
+      }
+      ViroARSceneNavigatorModule.startVideoRecordingWithOptions(
+        tag,
+        fileName,
+        saveToCameraRoll,
+        encoderOptions,
+        onError
+      );
+      return;
+    }
     ViroARSceneNavigatorModule.startVideoRecording(
       findNodeHandle(this),
       fileName,
@@ -224,12 +266,28 @@ export class ViroARSceneNavigator extends React.Component<Props, State> {
    * returns Object w/ success, url and errorCode keys.
    * @returns Promise that resolves when the video has stopped recording.
    */
-  _stopVideoRecording = async () => {
-    return await ViroARSceneNavigatorModule.stopVideoRecording(
-      findNodeHandle(this)
-    );
+  _stopVideoRecording = async (): Promise<ViroVideoRecordingResult> => {
+    try {
+      return await ViroARSceneNavigatorModule.stopVideoRecording(
+        findNodeHandle(this)
+      );
+    } finally {
+      // Every segment event is emitted before the recording resolves
+      this._removeSegmentSubscription();
+    }
   };
 
+  _removeSegmentSubscription() {
+    if (this._segmentSubscription) {
+      this._segmentSubscription.remove();
+      this._segmentSubscription = null;
+    }
+  }
+
+  componentWillUnmount() {
+    this._removeSegmentSubscription();
+  }
+
   /**
    * Takes a screenshot of the Viro renderer
    *
@@ -919,6 +977,22 @@ export class ViroARSceneNavigator extends React.Component<Props, State> {
     );
   };
 
+  /**
+   * Get the state of the anchoring of the nodes placed at the root of the
+   * current scene: pending nodes, live (shared) anchors, attempts and
+   * failures. Android only.
+   *
+   * @returns Promise resolving to the anchoring metrics
+   */
+  _getAnchoringMetrics = async (): Promise<ViroAnchoringMetricsResult> => {
+    if (ViroARSceneNavigatorModule.getAnchoringMetrics === undefined) {
+      return { success: false, error: "Not supported on this platform" };
+    }
+    return await ViroARSceneNavigatorModule.getAnchoringMetrics(
+      findNodeHandle(this)
+    );
+  };
+
   /**
    * Renders the Scene Views in the stack.
    *
@@ -976,6 +1050,7 @@ export class ViroARSceneNavigator extends React.Component<Props, State> {
     setSemanticModeEnabled: this._setSemanticModeEnabled,
     getSemanticLabelFractions: this._getSemanticLabelFractions,
     getSemanticLabelFraction: this._getSemanticLabelFraction,
+    getAnchoringMetrics: this._getAnchoringMetrics,
     viroAppProps: {} as any,
   };
   sceneNavigator = {
@@ -1009,6 +1084,7 @@ export class ViroARSceneNavigator extends React.Component<Props, State> {
     setSemanticModeEnabled: this._setSemanticModeEnabled,
     getSemanticLabelFractions: this._getSemanticLabelFractions,
     getSemanticLabelFraction: this._getSemanticLabelFraction,
+    getAnchoringMetrics: this._getAnchoringMetrics,
     viroAppProps: {} as any,
   };
 
@@ -93,6 +93,18 @@ export type ViroObjectProps = {
   height?: number;
   length?: number;
   materials?: ViroSource[] | string | string[];
+  /**
+   * Marks this object as static so that it renders with the shared instances of
+   * its materials instead of its own copies. Static objects using the same
+   * materials can then be grouped by the renderer, which matters for scenes
+   * with many small meshes drawn with a handful of materials.
+   *
+   * Because the material instances are shared, animating the materials of a
+   * static object affects every static object using those materials.
+   *
+   * Flag is set to false by default.
+   */
+  staticBatching?: boolean;
   animation?: ViroAnimation;
   transformBehaviors?: string | string[];
   lightReceivingBitMask?: number;
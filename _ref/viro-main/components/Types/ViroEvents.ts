@@ -305,6 +305,50 @@ export type ViroARPointCloudUpdateEvent = {
 
 export type ViroARPointCloud = any;
 
+/**
+ * Encoder options of a video recording. Unset values keep the defaults of the
+ * standard recorder (full resolution, 7 Mbps, 30 fps, a keyframe every second, H.264).
+ */
+export type ViroVideoRecordingOptions = {
+  /** Scale of the recorded resolution relative to the AR view, (0, 1]. */
+  resolutionScale?: number;
+  /** Target bitrate, in bits per second. */
+  bitrate?: number;
+  /** Maximum number of frames recorded per second. */
+  fps?: number;
+  /** Seconds between keyframes. */
+  keyframeInterval?: number;
+  /** Falls back to H.264 when the device has no HEVC encoder. */
+  codec?: "h264" | "hevc";
+  /**
+   * Seconds per segment. When set, MP4 segments are written while recording,
+   * each starting on a keyframe, and the recording url is an ffconcat
+   * manifest of the segments.
+   */
+  segmentDuration?: number;
+  /** Called as each segment is completed, e.g. to start uploading it. */
+  onSegmentReady?: (event: ViroVideoSegmentReadyEvent) => void;
+};
+
+export type ViroVideoSegmentReadyEvent = {
+  url: string;
+  index: number;
+  /** In seconds. */
+  duration: number;
+};
+
+export type ViroVideoRecordingResult = {
+  success: boolean;
+  url: string | null;
+  errorCode: number;
+  /** Frames written to the file. Only set for recordings started with options. */
+  encodedFrames?: number;
+  /** Frames skipped because a capture could not keep up. Only set for recordings started with options. */
+  droppedFrames?: number;
+  /** Segment urls, in order, for segmented recordings. */
+  segments?: string[];
+};
+
 export type ViroTrackingUpdatedEvent = {
   state: ViroTrackingState;
   reason: ViroTrackingReason;
@@ -326,7 +370,37 @@ export type ViroAmbientLightUpdateEvent = {
 
 export type ViroAmbientLightInfo = {
   intensity: number; // TODO: This might not be right
-  color: string;
+  /**
+   * Hex string, or [r, g, b] in [0, 1] with the "rgb" colorFormat of
+   * ViroARUpdateOptions.
+   */
+  color: string | [number, number, number];
+};
+
+/**
+ * Limits how often onAmbientLightUpdate and onTrackingUpdated are called.
+ * Without options, every light estimate (each frame) and every tracking
+ * change is delivered.
+ */
+export type ViroARUpdateOptions = {
+  /** Minimum milliseconds between light updates. */
+  lightUpdateInterval?: number;
+  /**
+   * Exponential smoothing of the intensity and color, in [0, 1): the weight
+   * of the previous value. 0 disables smoothing.
+   */
+  lightSmoothing?: number;
+  /** Smallest intensity change, in lumens, that triggers a light update. */
+  intensityThreshold?: number;
+  /** Smallest color channel change, in [0, 1], that triggers a light update. */
+  colorThreshold?: number;
+  /** "rgb" delivers the color as [r, g, b] in [0, 1] instead of a hex string. */
+  colorFormat?: "hex" | "rgb";
+  /**
+   * Minimum milliseconds between tracking updates. The latest state is
+   * delivered once the interval has passed, so the final state is never lost.
+   */
+  trackingUpdateInterval?: number;
 };
 
 export type ViroWorldOrigin = {
@@ -613,3 +687,32 @@ export type ViroSemanticLabelFractionResult = {
   fraction: number;
   error?: string;
 };
+
+/**
+ * State of the anchoring of the nodes at the root of the current AR scene.
+ */
+export type ViroAnchoringMetrics = {
+  /** Nodes waiting for an anchor. */
+  pendingNodes: number;
+  /** Whether pending nodes wait for tracking to become normal. */
+  waitingForTracking: boolean;
+  /** Live anchors, each possibly shared by nearby nodes. */
+  anchors: number;
+  anchoredNodes: number;
+  attempts: number;
+  failures: number;
+  anchorsCreated: number;
+  /** Nodes attached to an existing anchor instead of creating one. */
+  sharedAttachments: number;
+  /** Nodes left floating after their last attempt failed. */
+  abandonedNodes: number;
+};
+
+/**
+ * Result of getting the anchoring metrics.
+ */
+export type ViroAnchoringMetricsResult = {
+  success: boolean;
+  metrics?: ViroAnchoringMetrics;
+  error?: string;
+};
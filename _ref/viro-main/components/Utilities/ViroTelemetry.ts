@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2016-present, Viro Media, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ *
+ * @providesModule ViroTelemetry
+ */
+import { NativeModules } from "react-native";
+
+const TelemetryModule = NativeModules.VRTTelemetry;
+
+export type ViroTelemetryFrameStats = {
+  sampleCount: number;
+  droppedFrames: number;
+  refreshRate: number;
+  fps?: number;
+  frameTimeMeanMs?: number;
+  frameTimeP50Ms?: number;
+  frameTimeP90Ms?: number;
+  frameTimeP95Ms?: number;
+  frameTimeP99Ms?: number;
+  frameTimeMaxMs?: number;
+};
+
+export type ViroTelemetryMemoryStats = {
+  javaHeapBytes: number;
+  nativeHeapBytes: number;
+  graphicsBytes: number;
+  totalPssBytes: number;
+};
+
+export type ViroTelemetrySnapshot = {
+  enabled: boolean;
+  frames: ViroTelemetryFrameStats;
+  memory: ViroTelemetryMemoryStats;
+  liveObjects: { [componentType: string]: number };
+  events: { [eventName: string]: { count: number; perSecond: number } };
+  traceFile: string | null;
+};
+
+/**
+ * Runtime telemetry collected by the native renderer bridge. Frame timing is
+ * only sampled while enabled; event and component counts are always kept.
+ * Currently only available on Android.
+ */
+export class ViroTelemetry {
+  static setEnabled(enabled: boolean) {
+    TelemetryModule?.setEnabled(enabled);
+  }
+
+  static reset() {
+    TelemetryModule?.reset();
+  }
+
+  /**
+   * Event rates in the returned snapshot are measured since the previous call.
+   */
+  static async getSnapshot(): Promise<ViroTelemetrySnapshot | null> {
+    if (!TelemetryModule) {
+      return null;
+    }
+    return await TelemetryModule.getSnapshot();
+  }
+
+  /**
+   * Writes sampled frames to a rolling binary trace file in the app's cache
+   * directory, rolling over once the file exceeds maxBytes (default 4MB).
+   */
+  static startTrace(options?: { maxBytes?: number }) {
+    TelemetryModule?.startTrace(options ?? {});
+  }
+
+  static stopTrace() {
+    TelemetryModule?.stopTrace();
+  }
+}
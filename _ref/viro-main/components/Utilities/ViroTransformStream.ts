@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2016-present, Viro Media, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ *
+ * @providesModule ViroTransformStream
+ */
+import { NativeModules, Platform } from "react-native";
+
+type Vec3 = [number, number, number];
+
+const RECORD_SIZE = 10;
+
+/**
+ * Batches transform updates for many nodes into packed
+ * [tag, px, py, pz, rx, ry, rz, sx, sy, sz] records and sends them to native
+ * in a single call, instead of re-rendering each node's position, rotation
+ * and scale props. Rotations are in degrees. Call flush() once per frame.
+ *
+ * Node tags can be obtained with findNodeHandle(nodeRef). Values set this way
+ * are overwritten the next time the node's own transform props change.
+ * Currently only available on Android.
+ */
+export class ViroTransformStream {
+  _records: number[] = [];
+  _count = 0;
+
+  set(tag: number, position: Vec3, rotation: Vec3, scale: Vec3) {
+    const records = this._records;
+    let i = this._count * RECORD_SIZE;
+    records[i++] = tag;
+    records[i++] = position[0];
+    records[i++] = position[1];
+    records[i++] = position[2];
+    records[i++] = rotation[0];
+    records[i++] = rotation[1];
+    records[i++] = rotation[2];
+    records[i++] = scale[0];
+    records[i++] = scale[1];
+    records[i++] = scale[2];
+    this._count++;
+  }
+
+  flush() {
+    if (this._count === 0) {
+      return;
+    }
+    this._records.length = this._count * RECORD_SIZE;
+    if (Platform.OS === "android") {
+      NativeModules.VRTNodeModule.applyTransforms(this._records);
+    }
+    this._count = 0;
+  }
+}
@@ -37,6 +37,16 @@ type Props = {
     weight?: number;
   }>;
 
+  /**
+   * Lower detail alternatives for source, ordered by increasing distance. Each model is used
+   * once the camera is at least `distance` away from the object.
+   */
+  lods?: Array<{
+    source: ImageSourcePropType;
+    type: "OBJ" | "VRX" | "GLTF" | "GLB";
+    distance: number;
+  }>;
+
   onLoadStart?: (event: NativeSyntheticEvent<ViroLoadStartEvent>) => void;
   onLoadEnd?: (event: NativeSyntheticEvent<ViroLoadEndEvent>) => void;
   onError?: (event: NativeSyntheticEvent<ViroErrorEvent>) => void;
@@ -52,6 +62,10 @@ export class Viro3DObject extends ViroBase<Props> {
     const resources = this.props.resources?.map((resource) =>
       resolveAssetSource(resource)
     );
+    const lods = this.props.lods?.map((lod) => ({
+      ...lod,
+      source: resolveAssetSource(lod.source),
+    }));
 
     // Since materials and transformBehaviors can be either a string or an array, convert the string to a 1-element array.
     const materials =
@@ -102,6 +116,7 @@ export class Viro3DObject extends ViroBase<Props> {
         physicsBody={newPhysicsBody}
         source={modelsrc}
         resources={resources}
+        lods={lods}
         materials={materials}
         transformBehaviors={transformBehaviors}
         canHover={this.props.onHover != undefined}
@@ -23,6 +23,18 @@ type Props = ViroCommonProps & {
   onPortalExit?: (event: NativeSyntheticEvent<ViroPortalExitEvent>) => void;
 
   passable?: boolean;
+
+  /**
+   * Enables lazy hydration of the portal's interior. Interior content stays unloaded until the
+   * portal is within hydrateDistance and viewAngle (degrees off the camera's forward direction),
+   * and is released again once it has been beyond dehydrateDistance for dehydrateDelay ms.
+   */
+  hydration?: {
+    hydrateDistance?: number;
+    dehydrateDistance?: number;
+    viewAngle?: number;
+    dehydrateDelay?: number;
+  };
 };
 
 /**
@@ -108,11 +108,17 @@ import {
   ViroARHitTestResult,
   ViroARPointCloudUpdateEvent,
   ViroARPointCloud,
+  ViroVideoRecordingOptions,
+  ViroVideoRecordingResult,
+  ViroVideoSegmentReadyEvent,
+  ViroAnchoringMetrics,
+  ViroAnchoringMetricsResult,
   ViroTrackingUpdatedEvent,
   ViroTrackingState,
   ViroTrackingReason,
   ViroAmbientLightUpdateEvent,
   ViroAmbientLightInfo,
+  ViroARUpdateOptions,
   ViroWorldOrigin,
   ViroNativeTransformUpdateEvent,
   ViroControllerStatusEvent,
@@ -147,6 +153,13 @@ import {
 import { ViroSurface } from "./components/ViroSurface";
 import { ViroSceneNavigator } from "./components/ViroSceneNavigator";
 import { VIRO_VERSION } from "./components/Utilities/ViroVersion";
+import {
+  ViroTelemetry,
+  ViroTelemetrySnapshot,
+  ViroTelemetryFrameStats,
+  ViroTelemetryMemoryStats,
+} from "./components/Utilities/ViroTelemetry";
+import { ViroTransformStream } from "./components/Utilities/ViroTransformStream";
 
 export {
   ViroARImageMarker,
@@ -205,6 +218,8 @@ export {
   polarToCartesian,
   polarToCartesianActual,
   isARSupportedOnDevice,
+  ViroTelemetry,
+  ViroTransformStream,
   // Types
   ViroARSupportResponse,
   ViroHoverEvent,
@@ -254,11 +269,17 @@ export {
   ViroARHitTestResult,
   ViroARPointCloudUpdateEvent,
   ViroARPointCloud,
+  ViroVideoRecordingOptions,
+  ViroVideoRecordingResult,
+  ViroVideoSegmentReadyEvent,
+  ViroAnchoringMetrics,
+  ViroAnchoringMetricsResult,
   ViroTrackingUpdatedEvent,
   ViroTrackingState,
   ViroTrackingReason,
   ViroAmbientLightUpdateEvent,
   ViroAmbientLightInfo,
+  ViroARUpdateOptions,
   ViroWorldOrigin,
   ViroNativeTransformUpdateEvent,
   ViroControllerStatusEvent,
@@ -269,6 +290,9 @@ export {
   ViroTextStyle,
   ViroStyle,
   VIRO_VERSION,
+  ViroTelemetrySnapshot,
+  ViroTelemetryFrameStats,
+  ViroTelemetryMemoryStats,
   // Cloud Anchor Types
   ViroCloudAnchorState,
   ViroCloudAnchorProvider,